@@ -18,6 +18,8 @@ package org.onehippo.cms7.essentials.components;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletResponse;
@@ -28,12 +30,14 @@ import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
 import org.hippoecm.hst.container.RequestContextProvider;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
 import org.hippoecm.hst.content.beans.standard.HippoDocument;
+import org.hippoecm.hst.content.beans.standard.HippoFacetNavigationBean;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.linking.HstLink;
 import org.hippoecm.hst.core.linking.HstLinkCreator;
 import org.hippoecm.hst.core.request.HstRequestContext;
 import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.util.ContentBeanUtils;
 import org.hippoecm.hst.util.PathUtils;
 import org.hippoecm.hst.util.SearchInputParsingUtils;
 import org.onehippo.cms7.essentials.components.utils.SiteUtils;
@@ -75,8 +79,14 @@ public abstract class CommonComponent extends BaseHstComponent {
      */
     protected static final String REQUEST_PARAM_QUERY = REQUEST_ATTR_QUERY;
     protected static final String REQUEST_PARAM_PAGE = REQUEST_ATTR_PAGE;
+    protected static final String REQUEST_PARAM_CURSOR = "cursor"; // keyset pagination cursor
 
 
+    /**
+     * Request context attribute holding resolved facet navigation beans (shared between components)
+     */
+    private static final String REQUEST_CONTEXT_ATTR_FACET_BEANS = CommonComponent.class.getName() + ".facetBeans";
+
     private static Logger log = LoggerFactory.getLogger(CommonComponent.class);
 
     @Override
@@ -261,6 +271,56 @@ public abstract class CommonComponent extends BaseHstComponent {
         }
     }
 
+    /**
+     * Returns facet navigation bean for given path and free-text query. Facet navigation is resolved only once
+     * per request, so components sharing a page (e.g. facets and list component) reuse the same bean.
+     *
+     * @param relPath path relative to site content base, including selected facet values
+     * @param query   (cleaned up) free-text query, may be null
+     * @return facet navigation bean or null if none found
+     * @see ContentBeanUtils#getFacetNavigationBean(String, String)
+     */
+    @Nullable
+    public HippoFacetNavigationBean resolveFacetNavigationBean(final String relPath, @Nullable final String query) {
+        final HstRequestContext context = RequestContextProvider.get();
+        final Map<String, HippoFacetNavigationBean> resolved = getRequestContextMap(context, REQUEST_CONTEXT_ATTR_FACET_BEANS);
+        final String key = getFacetNavigationKey(relPath, query);
+        if (resolved.containsKey(key)) {
+            log.debug("Using already resolved facet navigation: [{}]", key);
+            return resolved.get(key);
+        }
+        final HippoFacetNavigationBean bean = ContentBeanUtils.getFacetNavigationBean(relPath, query);
+        resolved.put(key, bean);
+        return bean;
+    }
+
+    /**
+     * Registers a facet navigation bean which was resolved otherwise (e.g. as resolved sitemap item content bean),
+     * so {@link #resolveFacetNavigationBean(String, String)} reuses it within the current request.
+     *
+     * @param relPath path relative to site content base, including selected facet values
+     * @param query   (cleaned up) free-text query, may be null
+     * @param bean    resolved facet navigation bean
+     */
+    protected void registerFacetNavigationBean(final String relPath, @Nullable final String query, final HippoFacetNavigationBean bean) {
+        final Map<String, HippoFacetNavigationBean> resolved = getRequestContextMap(RequestContextProvider.get(), REQUEST_CONTEXT_ATTR_FACET_BEANS);
+        resolved.put(getFacetNavigationKey(relPath, query), bean);
+    }
+
+    private static String getFacetNavigationKey(final String relPath, @Nullable final String query) {
+        return Strings.isNullOrEmpty(query) ? relPath : relPath + '?' + query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Map<String, V> getRequestContextMap(final HstRequestContext context, final String attributeName) {
+        Map<String, V> map = (Map<String, V>) context.getAttribute(attributeName);
+        if (map == null) {
+            map = new HashMap<>();
+            context.setAttribute(attributeName, map);
+        }
+        return map;
+    }
+
     @Nullable
     public String cleanupSearchQuery(final String query) {
         return SearchInputParsingUtils.parse(query, false);
@@ -22,18 +22,18 @@ import java.util.List;
 import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
 import org.hippoecm.hst.content.beans.manager.ObjectConverter;
 import org.hippoecm.hst.content.beans.query.HstQuery;
+import org.hippoecm.hst.content.beans.query.HstQueryResult;
 import org.hippoecm.hst.content.beans.query.exceptions.QueryException;
+import org.hippoecm.hst.content.beans.query.filter.Filter;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
-import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
 import org.hippoecm.hst.core.request.HstRequestContext;
-import org.hippoecm.hst.util.ContentBeanUtils;
 import org.onehippo.cms7.essentials.components.info.EssentialsBlogAuthorPostsComponentInfo;
 import org.onehippo.cms7.essentials.components.model.AuthorEntry;
 import org.onehippo.cms7.essentials.components.model.Authors;
-import org.onehippo.cms7.essentials.components.paging.DefaultPagination;
+import org.onehippo.cms7.essentials.components.paging.IterablePagination;
 import org.onehippo.cms7.essentials.components.paging.Pageable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +45,8 @@ import org.slf4j.LoggerFactory;
 public class EssentialsBlogAuthorPostsComponent extends EssentialsListComponent {
 
     public static final int DEFAULT_SEARCH_DEPTH = 3;
+    private static final String DOCBASE_FIELD = "@hippo:docbase";
+    private static final String IDENTIFIER_FIELD = "jcr:uuid";
     private static Logger log = LoggerFactory.getLogger(EssentialsBlogAuthorPostsComponent.class);
 
     @Override
@@ -61,28 +63,16 @@ public class EssentialsBlogAuthorPostsComponent extends EssentialsListComponent
                 request.setAttribute("authors", authors);
                 final Class<? extends HippoBean> clazz = getPrimaryType(context, document);
                 final EssentialsBlogAuthorPostsComponentInfo paramInfo = getComponentParametersInfo(request);
-                final int limit = paramInfo.getPageSize();
-                final String sortField = paramInfo.getSortField();
-                final List<HippoBean> beans = new ArrayList<>(limit);
+                final int pageSize = paramInfo.getPageSize();
+                final int page = getCurrentPage(request);
                 final HippoBean scopeBean = getScopeBean(paramInfo.getScope());
                 try {
-                    for (AuthorEntry author : authors) {
-                        final HstQuery hstQuery = ContentBeanUtils.createIncomingBeansQuery(author, scopeBean, getSearchDepth(), clazz, true);
-                        hstQuery.setLimit(limit);
-                        hstQuery.addOrderByDescending(sortField);
-                        final HippoBeanIterator it = hstQuery.execute().getHippoBeans();
-                        while (it.hasNext()) {
-                            final HippoBean bean = it.nextHippoBean();
-                            if (!document.isSelf(bean)) {
-                                beans.add(bean);
-                            }
-                        }
-                        if (beans.size() >= limit) {
-                            break;
-                        }
-
-                    }
-                    final Pageable<HippoBean> pageable = new DefaultPagination<>(beans);
+                    final HstQuery hstQuery = createAuthorPostsQuery(context, document, authors, scopeBean, clazz);
+                    hstQuery.setLimit(pageSize);
+                    hstQuery.setOffset((page - 1) * pageSize);
+                    hstQuery.addOrderByDescending(paramInfo.getSortField());
+                    final HstQueryResult result = hstQuery.execute();
+                    final Pageable<HippoBean> pageable = new IterablePagination<>(result.getHippoBeans(), result.getTotalSize(), pageSize, page);
                     request.setAttribute(REQUEST_ATTR_PAGEABLE, pageable);
                 } catch (QueryException e) {
                     log.error("Error fetching posts by authors", e);
@@ -93,6 +83,53 @@ public class EssentialsBlogAuthorPostsComponent extends EssentialsListComponent
         setEditMode(request);
     }
 
+    /**
+     * Creates a single query for documents linking to any of the authors (excluding current document), so the
+     * number of queries doesn't depend on the number of authors.
+     *
+     * @param context  request context
+     * @param document current document
+     * @param authors  authors of current document
+     * @param scope    search scope
+     * @param clazz    type of documents to search for
+     * @return query for documents linking to the authors
+     * @throws QueryException when query or filter creation fails
+     */
+    protected HstQuery createAuthorPostsQuery(final HstRequestContext context, final HippoBean document, final List<? extends AuthorEntry> authors,
+                                              final HippoBean scope, final Class<? extends HippoBean> clazz) throws QueryException {
+        final HstQuery query = context.getQueryManager().createQuery(scope, clazz, true);
+        final List<String> linkPaths = getLinkPaths();
+        final Filter authorsFilter = query.createFilter();
+        for (AuthorEntry author : authors) {
+            final String handleIdentifier = author.getCanonicalHandleUUID();
+            for (String linkPath : linkPaths) {
+                final Filter linkFilter = query.createFilter();
+                linkFilter.addEqualTo(linkPath, handleIdentifier);
+                authorsFilter.addOrFilter(linkFilter);
+            }
+        }
+        final Filter excludeSelf = query.createFilter();
+        excludeSelf.addNotEqualTo(IDENTIFIER_FIELD, document.getIdentifier());
+        final Filter root = query.createFilter();
+        root.addAndFilter(authorsFilter);
+        root.addAndFilter(excludeSelf);
+        query.setFilter(root);
+        return query;
+    }
+
+    /**
+     * Link (docbase) property paths, from document level down to search depth
+     */
+    private List<String> getLinkPaths() {
+        final List<String> linkPaths = new ArrayList<>();
+        final StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i <= getSearchDepth(); i++) {
+            linkPaths.add(prefix + DOCBASE_FIELD);
+            prefix.append("*/");
+        }
+        return linkPaths;
+    }
+
     private Class<? extends HippoBean> getPrimaryType(final HstRequestContext context, final HippoBean document) {
         try {
             final ObjectConverter converter = context.getContentBeansTool().getObjectConverter();
@@ -24,7 +24,6 @@ import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
 import org.hippoecm.hst.core.request.HstRequestContext;
 import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
-import org.hippoecm.hst.util.ContentBeanUtils;
 import org.hippoecm.hst.util.PathUtils;
 import org.onehippo.cms7.essentials.components.info.EssentialsFacetsComponentInfo;
 import org.slf4j.Logger;
@@ -69,13 +68,22 @@ public class EssentialsFacetsComponent extends CommonComponent {
         ResolvedSiteMapItem resolvedSiteMapItem = context.getResolvedSiteMapItem();
         String resolvedContentPath = PathUtils.normalizePath(resolvedSiteMapItem.getRelativeContentPath());
         String parsedQuery = cleanupSearchQuery(query);
-        HippoFacetNavigationBean facNavBean;
-        if (!StringUtils.isBlank(resolvedContentPath)
-                && !resolvedContentPath.startsWith("/")
-                && context.getSiteContentBaseBean().getBean(resolvedContentPath, HippoFacetNavigationBean.class) != null) {
-            facNavBean = ContentBeanUtils.getFacetNavigationBean(resolvedContentPath, parsedQuery);
-        } else {
-            facNavBean = ContentBeanUtils.getFacetNavigationBean(path, parsedQuery);
+        HippoFacetNavigationBean facNavBean = null;
+        if (!StringUtils.isBlank(resolvedContentPath) && !resolvedContentPath.startsWith("/")) {
+            final HippoBean resolvedBean = context.getSiteContentBaseBean().getBean(resolvedContentPath);
+            if (resolvedBean instanceof HippoFacetNavigationBean) {
+                if (Strings.isNullOrEmpty(parsedQuery)) {
+                    // without a query, resolved bean is the facet navigation itself: no need to resolve it again,
+                    // but share it with other components (e.g. list component) of this request
+                    facNavBean = (HippoFacetNavigationBean) resolvedBean;
+                    registerFacetNavigationBean(resolvedContentPath, parsedQuery, facNavBean);
+                } else {
+                    facNavBean = resolveFacetNavigationBean(resolvedContentPath, parsedQuery);
+                }
+            }
+        }
+        if (facNavBean == null) {
+            facNavBean = resolveFacetNavigationBean(path, parsedQuery);
         }
         return facNavBean;
     }
@@ -17,11 +17,14 @@
 package org.onehippo.cms7.essentials.components;
 
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletResponse;
 
 import org.hippoecm.hst.container.RequestContextProvider;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
 import org.hippoecm.hst.content.beans.query.HstQuery;
 import org.hippoecm.hst.content.beans.query.HstQueryResult;
 import org.hippoecm.hst.content.beans.query.exceptions.FilterException;
@@ -29,6 +32,7 @@ import org.hippoecm.hst.content.beans.query.exceptions.QueryException;
 import org.hippoecm.hst.content.beans.query.filter.BaseFilter;
 import org.hippoecm.hst.content.beans.query.filter.Filter;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
 import org.hippoecm.hst.content.beans.standard.HippoDocumentIterator;
 import org.hippoecm.hst.content.beans.standard.HippoFacetNavigationBean;
 import org.hippoecm.hst.content.beans.standard.HippoResultSetBean;
@@ -37,19 +41,29 @@ import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
 import org.hippoecm.hst.core.request.HstRequestContext;
-import org.hippoecm.hst.util.ContentBeanUtils;
+import org.hippoecm.hst.util.PathUtils;
+import org.onehippo.cms7.essentials.components.cache.CachedQueryResult;
+import org.onehippo.cms7.essentials.components.cache.DefaultQueryResultCache;
+import org.onehippo.cms7.essentials.components.cache.QueryCacheKey;
+import org.onehippo.cms7.essentials.components.cache.QueryResultCache;
 import org.onehippo.cms7.essentials.components.info.EssentialsDocumentListComponentInfo;
 import org.onehippo.cms7.essentials.components.info.EssentialsPageable;
 import org.onehippo.cms7.essentials.components.info.EssentialsSortable;
 import org.onehippo.cms7.essentials.components.paging.DefaultPagination;
 import org.onehippo.cms7.essentials.components.paging.IterablePagination;
+import org.onehippo.cms7.essentials.components.paging.LazyPagination;
+import org.onehippo.cms7.essentials.components.paging.LazyTotalPagination;
+import org.onehippo.cms7.essentials.components.paging.PageCursor;
 import org.onehippo.cms7.essentials.components.paging.Pageable;
+import org.onehippo.cms7.essentials.components.utils.QueryClock;
 import org.onehippo.cms7.essentials.components.utils.SiteUtils;
+import org.onehippo.cms7.essentials.components.utils.TimeBucket;
 import org.onehippo.cms7.essentials.components.utils.query.HstQueryBuilder;
 import org.onehippo.cms7.essentials.components.utils.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 
 /**
@@ -61,6 +75,9 @@ import com.google.common.base.Strings;
 public class EssentialsListComponent extends CommonComponent {
 
     private static Logger log = LoggerFactory.getLogger(EssentialsListComponent.class);
+    private static final String REQUEST_ATTR_CLEANED_QUERY = EssentialsListComponent.class.getName() + ".cleanedQuery";
+
+    private volatile QueryClock queryClock = QueryClock.SYSTEM;
 
 
     @Override
@@ -140,14 +157,47 @@ public class EssentialsListComponent extends CommonComponent {
         if (Strings.isNullOrEmpty(sortField)) {
             return;
         }
-        final String sortOrder = Strings.isNullOrEmpty(componentInfo.getSortOrder()) ? EssentialsSortable.DESC : componentInfo.getSortOrder();
-        if (sortOrder.equals(EssentialsSortable.DESC)) {
-            query.addOrderByDescending(sortField);
-        } else {
+        if (isSortAscending(componentInfo)) {
             query.addOrderByAscending(sortField);
+        } else {
+            query.addOrderByDescending(sortField);
+        }
+        if (isCursorPagination(componentInfo)) {
+            // keyset pagination needs unique ordering
+            query.addOrderByAscending(PageCursor.IDENTIFIER_FIELD);
         }
     }
 
+    private static boolean isSortAscending(final EssentialsSortable componentInfo) {
+        final String sortOrder = Strings.isNullOrEmpty(componentInfo.getSortOrder()) ? EssentialsSortable.DESC : componentInfo.getSortOrder();
+        return !sortOrder.equals(EssentialsSortable.DESC);
+    }
+
+    /**
+     * Returns "now" to be used in date filters, truncated to given bucket. Within a bucket all requests use the same
+     * date, so date filtered queries are identical and can be cached.
+     *
+     * @param bucket granularity of the date
+     * @return start of current time bucket
+     * @see #setQueryClock(QueryClock)
+     */
+    protected Calendar getQueryDate(final TimeBucket bucket) {
+        return bucket.floor(queryClock.currentTimeMillis());
+    }
+
+    public QueryClock getQueryClock() {
+        return queryClock;
+    }
+
+    /**
+     * Sets the clock used for date filters, defaults to system time
+     *
+     * @param queryClock clock instance
+     */
+    public void setQueryClock(final QueryClock queryClock) {
+        this.queryClock = queryClock == null ? QueryClock.SYSTEM : queryClock;
+    }
+
 
     protected <T extends EssentialsDocumentListComponentInfo> Pageable<? extends HippoBean> doSearch(final HstRequest request, final T paramInfo, final HippoBean scope) {
         try {
@@ -176,13 +226,13 @@ public class EssentialsListComponent extends CommonComponent {
 
         Pageable<HippoBean> pageable = DefaultPagination.emptyCollection();
         final String relPath = SiteUtils.relativePathFrom(scope, request.getRequestContext());
-        final HippoFacetNavigationBean facetBean = ContentBeanUtils.getFacetNavigationBean(relPath, getSearchQuery(request));
+        final HippoFacetNavigationBean facetBean = resolveFacetNavigationBean(relPath, getSearchQuery(request));
         if (facetBean != null) {
             final HippoResultSetBean resultSet = facetBean.getResultSet();
             if (resultSet != null) {
                 final HippoDocumentIterator<HippoBean> iterator = resultSet.getDocumentIterator(HippoBean.class);
-                pageable = new IterablePagination<>(iterator, resultSet.getCount().intValue(), paramInfo.getPageSize(),
-                                                    getCurrentPage(request));
+                pageable = new LazyPagination<>(iterator, resultSet.getCount().intValue(), paramInfo.getPageSize(),
+                                                getCurrentPage(request));
             }
         }
         return pageable;
@@ -207,11 +257,16 @@ public class EssentialsListComponent extends CommonComponent {
     protected <T extends EssentialsDocumentListComponentInfo> HstQuery buildQuery(final HstRequest request, final T paramInfo, final HippoBean scope) {
         final QueryBuilder builder = new HstQueryBuilder(this, request);
         final String documentTypes = paramInfo.getDocumentTypes();
-        final String[] types = SiteUtils.parseCommaSeparatedValue(documentTypes);
         if (log.isDebugEnabled()) {
             log.debug("Searching for document types:  {}, and including subtypes: {}", documentTypes, paramInfo.getIncludeSubtypes());
         }
-        return builder.scope(scope).documents(types).includeSubtypes().build();
+        // NOTE: subtypes are only included when explicitly enabled (the builder used to ignore this flag)
+        if (Boolean.TRUE.equals(paramInfo.getIncludeSubtypes())) {
+            builder.includeSubtypes();
+        }
+        return builder.scope(scope).documentTypes(documentTypes)
+                .after(getPageCursor(request, paramInfo), paramInfo.getSortField(), isSortAscending(paramInfo))
+                .build();
     }
 
     /**
@@ -226,18 +281,158 @@ public class EssentialsListComponent extends CommonComponent {
     protected <T extends EssentialsDocumentListComponentInfo> Pageable<HippoBean> executeQuery(final HstRequest request, final T paramInfo, final HstQuery query) throws QueryException {
         final int pageSize = getPageSize(request, paramInfo);
         final int page = getCurrentPage(request);
-        query.setLimit(pageSize);
-        query.setOffset((page - 1) * pageSize);
+        final PageCursor cursor = getPageCursor(request, paramInfo);
+        final int offset = (page - 1) * pageSize;
+        // count-free mode: one extra item tells us if there is a next page
+        query.setLimit(isSkipTotalCount(paramInfo) ? pageSize + 1 : pageSize);
+        // with keyset pagination, cursor filter (see #buildQuery) replaces offset
+        query.setOffset(cursor == null ? offset : 0);
         applyOrdering(request, query, paramInfo);
         applyExcludeScopes(request, query, paramInfo);
         buildAndApplyFilters(request, query);
 
+        final IterablePagination<HippoBean> pageable = fetchPage(request, paramInfo, query, page, pageSize, cursor == null ? 0 : offset);
+        if (isCursorPagination(paramInfo)) {
+            pageable.processNextCursor(paramInfo.getSortField());
+        }
+        return pageable;
+    }
+
+    /**
+     * Executes the query, or fetches results from query result cache if enabled.
+     *
+     * @param request   the current request
+     * @param paramInfo the parameter info
+     * @param query     the query to execute
+     * @param page      current page
+     * @param pageSize  page size
+     * @param skipped   number of items which are excluded by a cursor filter (and therefore not part of query total)
+     * @return the pageable result
+     * @throws QueryException query exception when query fails
+     */
+    protected <T extends EssentialsDocumentListComponentInfo> IterablePagination<HippoBean> fetchPage(final HstRequest request, final T paramInfo, final HstQuery query,
+                                                                                                     final int page, final int pageSize, final int skipped) throws QueryException {
+        final boolean countFree = isSkipTotalCount(paramInfo);
+        final int offset = (page - 1) * pageSize;
+        final QueryResultCache cache = getQueryResultCache(request, paramInfo);
+        if (cache == null) {
+            final HstQueryResult execute = query.execute();
+            if (countFree) {
+                return new LazyTotalPagination<>(execute, pageSize, page, offset, skipped);
+            }
+            return new IterablePagination<>(
+                    execute.getHippoBeans(),
+                    skipped + execute.getTotalSize(),
+                    pageSize,
+                    page);
+        }
+        final QueryCacheKey key = createCacheKey(request, paramInfo, query, page, pageSize);
+        final ObjectBeanManager beanManager = request.getRequestContext().getObjectBeanManager();
+        final CachedQueryResult cached = cache.get(key);
+        if (cached != null) {
+            log.debug("Query cache hit: {}", key);
+            final List<HippoBean> beans = cached.resolveBeans(beanManager);
+            if (countFree) {
+                return new LazyTotalPagination<>(beans, pageSize, page, offset, null, skipped);
+            }
+            return IterablePagination.forPage(beans, skipped + cached.getTotalSize(), pageSize, page);
+        }
         final HstQueryResult execute = query.execute();
-        return new IterablePagination<>(
-                execute.getHippoBeans(),
-                execute.getTotalSize(),
-                pageSize,
-                page);
+        final List<HippoBean> beans = new ArrayList<>(pageSize);
+        final List<String> identifiers = new ArrayList<>(pageSize);
+        final HippoBeanIterator iterator = execute.getHippoBeans();
+        while (iterator.hasNext()) {
+            final HippoBean bean = iterator.nextHippoBean();
+            if (bean != null) {
+                beans.add(bean);
+                identifiers.add(bean.getIdentifier());
+            }
+        }
+        if (countFree) {
+            cache.put(key, new CachedQueryResult(identifiers, CachedQueryResult.UNKNOWN_TOTAL));
+            return new LazyTotalPagination<>(beans, pageSize, page, offset, execute, skipped);
+        }
+        cache.put(key, new CachedQueryResult(identifiers, execute.getTotalSize()));
+        return IterablePagination.forPage(beans, skipped + execute.getTotalSize(), pageSize, page);
+    }
+
+    /**
+     * Checks if count-free (lazy total) pagination is enabled: exact total number of results
+     * is only computed when asked for.
+     *
+     * @param paramInfo the parameter info
+     * @return true if total count should be skipped
+     * @see LazyTotalPagination
+     */
+    protected <T extends EssentialsDocumentListComponentInfo> boolean isSkipTotalCount(final T paramInfo) {
+        return Boolean.TRUE.equals(paramInfo.getSkipTotalCount());
+    }
+
+    /**
+     * Checks if keyset (cursor) pagination is enabled. Cursor pagination requires a sort field.
+     *
+     * @param paramInfo the parameter info
+     * @return true if cursor pagination should be used
+     */
+    protected <T extends EssentialsDocumentListComponentInfo> boolean isCursorPagination(final T paramInfo) {
+        return Boolean.TRUE.equals(paramInfo.getCursorPagination()) && !Strings.isNullOrEmpty(paramInfo.getSortField());
+    }
+
+    /**
+     * Determine the keyset pagination cursor of the list query.
+     *
+     * @param request   the current request
+     * @param paramInfo the parameter info
+     * @return cursor pointing to the last item of previous page, or null if offset pagination should be used
+     */
+    @Nullable
+    protected <T extends EssentialsDocumentListComponentInfo> PageCursor getPageCursor(final HstRequest request, final T paramInfo) {
+        if (!isCursorPagination(paramInfo)) {
+            return null;
+        }
+        return PageCursor.decode(getAnyParameter(request, REQUEST_PARAM_CURSOR));
+    }
+
+    /**
+     * Returns query result cache to use. Caching is only used for live, anonymous requests (users with a subject may
+     * have different read access) and if enabled through component parameters. Override to plug in a different cache
+     * implementation.
+     *
+     * @param request   the current request
+     * @param paramInfo the parameter info
+     * @return query result cache or null if results should not be cached
+     */
+    @Nullable
+    protected <T extends EssentialsDocumentListComponentInfo> QueryResultCache getQueryResultCache(final HstRequest request, final T paramInfo) {
+        final HstRequestContext context = request.getRequestContext();
+        if (!Boolean.TRUE.equals(paramInfo.getCacheResults()) || context.isPreview() || context.getSubject() != null) {
+            return null;
+        }
+        return DefaultQueryResultCache.getInstance();
+    }
+
+    /**
+     * Creates query cache key. Query statement is used as filter part of the key,
+     * so all filters (contributed by subclasses) are taken into account.
+     *
+     * @param request   the current request
+     * @param paramInfo the parameter info
+     * @param query     fully built query
+     * @param page      current page
+     * @param pageSize  page size
+     * @return cache key
+     * @throws QueryException when query statement cannot be created
+     */
+    protected <T extends EssentialsDocumentListComponentInfo> QueryCacheKey createCacheKey(final HstRequest request, final T paramInfo, final HstQuery query,
+                                                                                          final int page, final int pageSize) throws QueryException {
+        // NOTE: scope path is only used for invalidation, query statement itself contains the actual scope
+        final String path = getScopePath(paramInfo);
+        String scopePath = '/' + request.getRequestContext().getSiteContentBasePath();
+        if (!Strings.isNullOrEmpty(path)) {
+            scopePath = scopePath + '/' + PathUtils.normalizePath(path);
+        }
+        return new QueryCacheKey(scopePath, paramInfo.getDocumentTypes(), paramInfo.getSortField(), paramInfo.getSortOrder(),
+                query.getQueryAsString(true), page, pageSize, isSkipTotalCount(paramInfo) ? pageSize + 1 : pageSize);
     }
 
     protected <T extends EssentialsDocumentListComponentInfo> void applyExcludeScopes(final HstRequest request, final HstQuery query, final T paramInfo) {
@@ -323,13 +518,19 @@ public class EssentialsListComponent extends CommonComponent {
 
 
     /**
-     * Fetches search query from reqest and cleans it
+     * Fetches search query from reqest and cleans it. Query is parsed only once per component invocation.
      *
      * @param request HstRequest
      * @return null if query was null or invalid
      */
     protected String getSearchQuery(HstRequest request) {
-        return cleanupSearchQuery(getAnyParameter(request, REQUEST_PARAM_QUERY));
+        @SuppressWarnings("unchecked")
+        Optional<String> query = (Optional<String>) request.getAttribute(REQUEST_ATTR_CLEANED_QUERY);
+        if (query == null) {
+            query = Optional.fromNullable(cleanupSearchQuery(getAnyParameter(request, REQUEST_PARAM_QUERY)));
+            request.setAttribute(REQUEST_ATTR_CLEANED_QUERY, query);
+        }
+        return query.orNull();
     }
 
 
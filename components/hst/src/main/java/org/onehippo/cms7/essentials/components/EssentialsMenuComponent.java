@@ -16,11 +16,22 @@
 
 package org.onehippo.cms7.essentials.components;
 
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuConfiguration;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenusConfiguration;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
 import org.hippoecm.hst.core.sitemenu.HstSiteMenu;
+import org.hippoecm.hst.util.PathUtils;
 import org.onehippo.cms7.essentials.components.info.EssentialsMenuComponentInfo;
+import org.onehippo.cms7.essentials.components.menu.CachedSiteMenu;
+import org.onehippo.cms7.essentials.components.menu.SelectedSiteMenu;
+import org.onehippo.cms7.essentials.components.menu.SiteMenuCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +58,15 @@ public class EssentialsMenuComponent extends CommonComponent {
             return;
         }
         siteMenu = CharMatcher.WHITESPACE.trimFrom(siteMenu);
+        if (Boolean.TRUE.equals(paramInfo.getCacheMenu()) && isCacheable(request.getRequestContext())) {
+            final SelectedSiteMenu cachedMenu = getCachedSiteMenu(request, siteMenu);
+            if (cachedMenu != null) {
+                log.debug("Using cached site menu:[{}]", siteMenu);
+                request.setAttribute("cachedMenu", cachedMenu);
+                request.setAttribute(REQUEST_ATTR_PARAM_INFO, paramInfo);
+                return;
+            }
+        }
         final HstSiteMenu menu = request.getRequestContext().getHstSiteMenus().getSiteMenu(siteMenu);
         if (menu == null) {
             log.warn("Invalid site menu is selected within EssentialsMenuComponent: {}", siteMenu);
@@ -56,4 +76,41 @@ public class EssentialsMenuComponent extends CommonComponent {
         request.setAttribute("menu", menu);
         request.setAttribute(REQUEST_ATTR_PARAM_INFO, paramInfo);
     }
+
+    /**
+     * Cached menus are only used for live requests: preview and channel manager requests need the (editable)
+     * site menu itself.
+     *
+     * @param context current request context
+     * @return true if cached site menu may be used
+     */
+    protected boolean isCacheable(final HstRequestContext context) {
+        return !context.isPreview() && !context.isCmsRequest();
+    }
+
+    /**
+     * Returns precomputed site menu, with selection state of current request.
+     *
+     * @param request  current HST request
+     * @param siteMenu name of the site menu
+     * @return cached site menu or null if not available (e.g. for menus with repository based items)
+     * @see SiteMenuCache
+     */
+    @Nullable
+    protected SelectedSiteMenu getCachedSiteMenu(final HstRequest request, final String siteMenu) {
+        final HstRequestContext context = request.getRequestContext();
+        final Mount mount = context.getResolvedMount().getMount();
+        final HstSiteMenusConfiguration menusConfiguration = mount.getHstSite().getSiteMenusConfiguration();
+        final HstSiteMenuConfiguration configuration = menusConfiguration == null ? null : menusConfiguration.getSiteMenuConfiguration(siteMenu);
+        if (configuration == null) {
+            return null;
+        }
+        final CachedSiteMenu menu = SiteMenuCache.getInstance().get(configuration, context, mount);
+        if (menu == null) {
+            return null;
+        }
+        final ResolvedSiteMapItem resolvedSiteMapItem = context.getResolvedSiteMapItem();
+        final String pathInfo = resolvedSiteMapItem == null ? null : PathUtils.normalizePath(resolvedSiteMapItem.getPathInfo());
+        return SelectedSiteMenu.select(menu, pathInfo);
+    }
 }
@@ -16,7 +16,6 @@
 
 package org.onehippo.cms7.essentials.components;
 
-import java.util.Calendar;
 import java.util.List;
 
 import org.hippoecm.hst.content.beans.query.HstQuery;
@@ -26,8 +25,8 @@ import org.hippoecm.hst.content.beans.query.filter.Filter;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
-import org.hippoecm.repository.util.DateTools;
 import org.onehippo.cms7.essentials.components.info.EssentialsNewsComponentInfo;
+import org.onehippo.cms7.essentials.components.utils.TimeBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,7 +61,8 @@ public class EssentialsNewsComponent extends EssentialsListComponent {
             if (!Strings.isNullOrEmpty(documentDateField)) {
                 try {
                     Filter filter = query.createFilter();
-                    filter.addLessOrEqualThan(documentDateField, Calendar.getInstance(), DateTools.Resolution.DAY);
+                    final TimeBucket bucket = TimeBucket.fromString(paramInfo.getDateBucket(), TimeBucket.DAY);
+                    filter.addLessOrEqualThan(documentDateField, getQueryDate(bucket), bucket.getResolution());
                     filters.add(filter);
                 } catch (FilterException e) {
                     log.error("An exception occurred while trying to create a query filter for hiding future items: {}", e);
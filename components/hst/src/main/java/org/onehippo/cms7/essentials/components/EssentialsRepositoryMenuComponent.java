@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.component.HstResponse;
+import org.hippoecm.hst.core.parameters.ParametersInfo;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.info.EssentialsRepositoryMenuComponentInfo;
+import org.onehippo.cms7.essentials.components.menu.RepositoryMenuCache;
+import org.onehippo.cms7.essentials.components.menu.RepositoryMenuTree;
+import org.onehippo.cms7.essentials.components.menu.RepositoryMenuView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HST component used for menus based on the folder/document structure of the repository. The tree is built once
+ * (per root, depth and mount) and kept up to date incrementally from content changes, per request only the active
+ * item is determined.
+ *
+ * @version "$Id$"
+ */
+@ParametersInfo(type = EssentialsRepositoryMenuComponentInfo.class)
+public class EssentialsRepositoryMenuComponent extends CommonComponent {
+
+    private static Logger log = LoggerFactory.getLogger(EssentialsRepositoryMenuComponent.class);
+
+    @Override
+    public void doBeforeRender(final HstRequest request, final HstResponse response) {
+        super.doBeforeRender(request, response);
+        final EssentialsRepositoryMenuComponentInfo paramInfo = getComponentParametersInfo(request);
+        final HstRequestContext context = request.getRequestContext();
+        final HippoBean root = getScopeBean(paramInfo.getRootFolder());
+        if (root == null || !root.isHippoFolderBean()) {
+            log.warn("Invalid root folder for repository menu: {}", paramInfo.getRootFolder());
+            return;
+        }
+        final RepositoryMenuTree tree = getMenuTree(context, root, paramInfo);
+        final HippoBean contentBean = context.getContentBean();
+        request.setAttribute("menu", new RepositoryMenuView(tree.getRoot(), contentBean == null ? null : contentBean.getCanonicalPath()));
+        request.setAttribute(REQUEST_ATTR_PARAM_INFO, paramInfo);
+    }
+
+    /**
+     * Returns menu tree for given root. Trees are shared, except for requests with an authenticated subject
+     * (which may see different content).
+     *
+     * @param context   current request context
+     * @param root      root folder
+     * @param paramInfo component parameters
+     * @return menu tree
+     */
+    protected RepositoryMenuTree getMenuTree(final HstRequestContext context, final HippoBean root, final EssentialsRepositoryMenuComponentInfo paramInfo) {
+        final boolean folderLinks = Boolean.TRUE.equals(paramInfo.getFolderLinks());
+        if (context.getSubject() != null) {
+            return RepositoryMenuTree.build(root, paramInfo.getDepth(), folderLinks, context);
+        }
+        final Mount mount = context.getResolvedMount().getMount();
+        final RepositoryMenuCache.Key key = new RepositoryMenuCache.Key(root.getCanonicalPath(), paramInfo.getDepth(), folderLinks,
+                mount.getIdentifier() + (mount.isPreview() ? ":preview" : ":live"));
+        return RepositoryMenuCache.getInstance().get(key, root, paramInfo.getDepth(), folderLinks, context);
+    }
+}
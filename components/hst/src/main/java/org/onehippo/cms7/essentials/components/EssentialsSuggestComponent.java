@@ -0,0 +1,214 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.hippoecm.hst.content.beans.query.HstQuery;
+import org.hippoecm.hst.content.beans.query.HstQueryResult;
+import org.hippoecm.hst.content.beans.query.exceptions.QueryException;
+import org.hippoecm.hst.content.beans.query.filter.Filter;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.component.HstResponse;
+import org.hippoecm.hst.core.parameters.ParametersInfo;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.info.EssentialsSuggestComponentInfo;
+import org.onehippo.cms7.essentials.components.suggest.SuggestionIndex;
+import org.onehippo.cms7.essentials.components.suggest.SuggestionIndexCache;
+import org.onehippo.cms7.essentials.components.utils.query.HstQueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+
+/**
+ * HST component used for autocomplete suggestions: suggests document titles, title words and tags starting with the
+ * typed query. Suggestions come from an in-memory index, which is built once per scope and kept up to date through
+ * content change events, so lookups don't execute repository queries. Requests with an authenticated subject may see
+ * other content than the shared index contains, those execute a small query limited to the number of suggestions.
+ *
+ * @version "$Id$"
+ */
+@ParametersInfo(type = EssentialsSuggestComponentInfo.class)
+public class EssentialsSuggestComponent extends CommonComponent {
+
+    protected static final String REQUEST_ATTR_SUGGESTIONS = "suggestions";
+
+    /**
+     * Max. number of documents indexed per scope
+     */
+    private static final int MAX_DOCUMENTS = 10000;
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private static Logger log = LoggerFactory.getLogger(EssentialsSuggestComponent.class);
+
+    @Override
+    public void doBeforeRender(final HstRequest request, final HstResponse response) {
+        super.doBeforeRender(request, response);
+        final EssentialsSuggestComponentInfo paramInfo = getComponentParametersInfo(request);
+        final String query = Strings.nullToEmpty(getAnyParameter(request, REQUEST_PARAM_QUERY)).trim();
+        request.setAttribute(REQUEST_ATTR_QUERY, query);
+        request.setAttribute(REQUEST_ATTR_PARAM_INFO, paramInfo);
+        if (query.isEmpty()) {
+            request.setAttribute(REQUEST_ATTR_SUGGESTIONS, Collections.emptyList());
+            return;
+        }
+        if (request.getRequestContext().getSubject() != null) {
+            request.setAttribute(REQUEST_ATTR_SUGGESTIONS, findSuggestions(request, paramInfo, query));
+            return;
+        }
+        final SuggestionIndex index = getSuggestionIndex(request, paramInfo);
+        request.setAttribute(REQUEST_ATTR_SUGGESTIONS, index.suggest(query, paramInfo.getLimit()));
+    }
+
+    /**
+     * Returns shared suggestion index for configured scope.
+     *
+     * @param request   current HST request
+     * @param paramInfo component parameters
+     * @return suggestion index
+     */
+    protected SuggestionIndex getSuggestionIndex(final HstRequest request, final EssentialsSuggestComponentInfo paramInfo) {
+        final HstRequestContext context = request.getRequestContext();
+        final HippoBean scope = getScopeBean(paramInfo.getPath());
+        final SuggestionIndexCache.Key key = new SuggestionIndexCache.Key(scope.getCanonicalPath(), paramInfo.getDocumentTypes(),
+                paramInfo.getTitleField() + ',' + paramInfo.getTagsField(), context.isPreview());
+        return SuggestionIndexCache.getInstance().get(key, new Callable<SuggestionIndex>() {
+            @Override
+            public SuggestionIndex call() {
+                return buildIndex(request, paramInfo, scope);
+            }
+        });
+    }
+
+    /**
+     * Finds suggestions without the shared index: queries documents within scope of which the title or tags contain a
+     * word starting with given prefix, limited to the number of suggestions.
+     *
+     * @param request   current HST request
+     * @param paramInfo component parameters
+     * @param prefix    prefix typed by user
+     * @return suggestions, empty list if none found
+     */
+    protected List<String> findSuggestions(final HstRequest request, final EssentialsSuggestComponentInfo paramInfo, final String prefix) {
+        final String term = cleanupSearchQuery(prefix);
+        final String titleField = paramInfo.getTitleField();
+        final String tagsField = paramInfo.getTagsField();
+        if (Strings.isNullOrEmpty(term) || (Strings.isNullOrEmpty(titleField) && Strings.isNullOrEmpty(tagsField))) {
+            return Collections.emptyList();
+        }
+        final HippoBean scope = getScopeBean(paramInfo.getPath());
+        final HstQuery query = new HstQueryBuilder(this, request).scope(scope).documentTypes(paramInfo.getDocumentTypes())
+                .size(paramInfo.getLimit()).build();
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        final SuggestionIndex.Builder builder = new SuggestionIndex.Builder();
+        try {
+            final Filter filter = query.createFilter();
+            for (String field : new String[]{titleField, tagsField}) {
+                if (!Strings.isNullOrEmpty(field)) {
+                    final Filter fieldFilter = query.createFilter();
+                    fieldFilter.addContains(field, term + '*');
+                    filter.addOrFilter(fieldFilter);
+                }
+            }
+            query.setFilter(filter);
+            final HippoBeanIterator beans = query.execute().getHippoBeans();
+            while (beans.hasNext()) {
+                addDocument(builder, beans.nextHippoBean(), paramInfo);
+            }
+        } catch (QueryException e) {
+            log.error("Error querying suggestions", e);
+        }
+        return builder.build().suggest(prefix, paramInfo.getLimit());
+    }
+
+    /**
+     * Builds suggestion index from titles (and title words) and tags of documents within scope
+     *
+     * @param request   current HST request
+     * @param paramInfo component parameters
+     * @param scope     scope of indexed documents
+     * @return suggestion index
+     */
+    protected SuggestionIndex buildIndex(final HstRequest request, final EssentialsSuggestComponentInfo paramInfo, final HippoBean scope) {
+        final SuggestionIndex.Builder builder = new SuggestionIndex.Builder();
+        final HstQuery query = new HstQueryBuilder(this, request).scope(scope).documentTypes(paramInfo.getDocumentTypes())
+                .size(MAX_DOCUMENTS).build();
+        if (query == null) {
+            return builder.build();
+        }
+        try {
+            final HstQueryResult result = query.execute();
+            final HippoBeanIterator beans = result.getHippoBeans();
+            while (beans.hasNext()) {
+                addDocument(builder, beans.nextHippoBean(), paramInfo);
+            }
+            if (result.getTotalSize() > MAX_DOCUMENTS) {
+                log.warn("Suggestion index for {} is limited to {} of {} documents", scope.getPath(), MAX_DOCUMENTS, result.getTotalSize());
+            }
+        } catch (QueryException e) {
+            log.error("Error building suggestion index", e);
+        }
+        final SuggestionIndex index = builder.build();
+        log.debug("Built suggestion index for {} with {} terms", scope.getPath(), index.size());
+        return index;
+    }
+
+    private static void addDocument(final SuggestionIndex.Builder builder, final HippoBean bean, final EssentialsSuggestComponentInfo paramInfo) {
+        if (bean == null) {
+            return;
+        }
+        if (!Strings.isNullOrEmpty(paramInfo.getTitleField())) {
+            final Object title = bean.getProperty(paramInfo.getTitleField());
+            if (title instanceof String) {
+                addTitle(builder, (String) title);
+            }
+        }
+        if (!Strings.isNullOrEmpty(paramInfo.getTagsField())) {
+            addTags(builder, bean.getProperty(paramInfo.getTagsField()));
+        }
+    }
+
+    private static void addTitle(final SuggestionIndex.Builder builder, final String title) {
+        builder.add(title);
+        if (title.trim().indexOf(' ') < 0) {
+            return;
+        }
+        for (String word : Splitter.on(' ').trimResults().omitEmptyStrings().split(title)) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                builder.add(word);
+            }
+        }
+    }
+
+    private static void addTags(final SuggestionIndex.Builder builder, final Object tags) {
+        if (tags instanceof String[]) {
+            for (String tag : (String[]) tags) {
+                builder.add(tag);
+            }
+        } else if (tags instanceof String) {
+            builder.add((String) tags);
+        }
+    }
+}
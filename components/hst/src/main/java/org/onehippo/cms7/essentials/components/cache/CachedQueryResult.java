@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable (session independent) query result: identifiers of the beans within a page and total number of hits.
+ *
+ * @version "$Id$"
+ */
+public final class CachedQueryResult {
+
+    /**
+     * Total size of results which were fetched without counting
+     */
+    public static final int UNKNOWN_TOTAL = -1;
+
+    private static Logger log = LoggerFactory.getLogger(CachedQueryResult.class);
+
+    private final List<String> identifiers;
+    private final int totalSize;
+
+    public CachedQueryResult(final List<String> identifiers, final int totalSize) {
+        this.identifiers = Collections.unmodifiableList(new ArrayList<>(identifiers));
+        this.totalSize = totalSize;
+    }
+
+    public List<String> getIdentifiers() {
+        return identifiers;
+    }
+
+    /**
+     * Returns total number of hits
+     *
+     * @return total or {@link #UNKNOWN_TOTAL}
+     */
+    public int getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Resolves identifiers to beans, preserving order. Beans which can't be resolved (anymore) are skipped.
+     *
+     * @param manager object bean manager of the current request
+     * @param <T>     type of the beans
+     * @return list of beans
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends HippoBean> List<T> resolveBeans(final ObjectBeanManager manager) {
+        final List<T> beans = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            try {
+                final Object bean = manager.getObjectByUuid(identifier);
+                if (bean instanceof HippoBean) {
+                    beans.add((T) bean);
+                }
+            } catch (ObjectBeanManagerException e) {
+                log.debug("Couldn't resolve cached bean for identifier: {}", identifier, e);
+            }
+        }
+        return beans;
+    }
+}
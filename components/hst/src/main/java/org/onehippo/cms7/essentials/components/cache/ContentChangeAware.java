@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+/**
+ * Implemented by caches which need to be notified when repository content changes
+ *
+ * @version "$Id$"
+ * @see ContentChangeListener
+ */
+public interface ContentChangeAware {
+
+    /**
+     * Called when a node or property at given (absolute) path was added, changed or removed
+     *
+     * @param path absolute repository path
+     */
+    void invalidate(String path);
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JCR observation listener which notifies all registered {@code ContentChangeAware} caches of content changes.
+ * <p>The listener is registered for {@code /content} by {@code META-INF/essentials/hst-assembly/content-change-listener.xml},
+ * which ships with this jar but is opt-in: import it from an HST spring override of the site, e.g.
+ * {@code <import resource="classpath:/META-INF/essentials/hst-assembly/content-change-listener.xml"/>}.
+ * Without it, caches are only refreshed when their entries expire.</p>
+ *
+ * @version "$Id$"
+ */
+public class ContentChangeListener implements EventListener {
+
+    private static Logger log = LoggerFactory.getLogger(ContentChangeListener.class);
+    private static final Set<ContentChangeAware> listeners = new CopyOnWriteArraySet<>();
+
+    public static void register(final ContentChangeAware cache) {
+        listeners.add(cache);
+    }
+
+    public static void unregister(final ContentChangeAware cache) {
+        listeners.remove(cache);
+    }
+
+    /**
+     * Checks if a change of given path affects content at (or below) given scope: path is the scope itself,
+     * one of its descendants or one of its ancestors.
+     *
+     * @param changedPath absolute path of changed item
+     * @param scopePath   absolute path of content scope
+     * @return true if change affects scope
+     */
+    public static boolean isAffected(final String changedPath, final String scopePath) {
+        return isSameOrDescendant(changedPath, scopePath) || isSameOrDescendant(scopePath, changedPath);
+    }
+
+    private static boolean isSameOrDescendant(final String path, final String ancestor) {
+        if (!path.startsWith(ancestor)) {
+            return false;
+        }
+        return path.length() == ancestor.length() || ancestor.endsWith("/") || path.charAt(ancestor.length()) == '/';
+    }
+
+    @Override
+    public void onEvent(final EventIterator events) {
+        while (events.hasNext()) {
+            final Event event = events.nextEvent();
+            try {
+                final String path = event.getPath();
+                log.debug("Content changed: [{}]", path);
+                for (ContentChangeAware listener : listeners) {
+                    listener.invalidate(path);
+                }
+            } catch (RepositoryException e) {
+                log.error("Error reading event path", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Size bounded, time based (TTL) query result cache. Entries are also evicted when content within query scope
+ * changes (see {@link ContentChangeListener}).
+ *
+ * @version "$Id$"
+ */
+public class DefaultQueryResultCache implements QueryResultCache {
+
+    public static final int DEFAULT_TTL_SECONDS = 60;
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static Logger log = LoggerFactory.getLogger(DefaultQueryResultCache.class);
+    private static final DefaultQueryResultCache INSTANCE = new DefaultQueryResultCache(DEFAULT_TTL_SECONDS, DEFAULT_MAX_SIZE);
+
+    static {
+        ContentChangeListener.register(INSTANCE);
+    }
+
+    private final Cache<QueryCacheKey, CachedQueryResult> cache;
+
+    /**
+     * Returns shared cache instance (used by list components)
+     *
+     * @return shared cache
+     */
+    public static DefaultQueryResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    public DefaultQueryResultCache(final int ttlSeconds, final int maxSize) {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Nullable
+    @Override
+    public CachedQueryResult get(final QueryCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(final QueryCacheKey key, final CachedQueryResult result) {
+        cache.put(key, result);
+    }
+
+    @Override
+    public void invalidate(final String path) {
+        for (QueryCacheKey key : cache.asMap().keySet()) {
+            if (key.isAffectedBy(path)) {
+                log.debug("Invalidating {}", key);
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
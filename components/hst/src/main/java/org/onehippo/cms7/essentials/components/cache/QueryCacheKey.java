@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+import com.google.common.base.Objects;
+
+/**
+ * Immutable key of a cached list query. The filter part is the query statement (which also contains
+ * applied filters), so any filter contributed by a component ends up in the key.
+ *
+ * @version "$Id$"
+ */
+public final class QueryCacheKey {
+
+    private final String scopePath;
+    private final String documentTypes;
+    private final String sortField;
+    private final String sortOrder;
+    private final String filter;
+    private final int page;
+    private final int pageSize;
+    private final int limit;
+    private final int hashCode;
+
+    public QueryCacheKey(final String scopePath, final String documentTypes, final String sortField, final String sortOrder,
+                         final String filter, final int page, final int pageSize, final int limit) {
+        this.scopePath = scopePath;
+        this.documentTypes = documentTypes;
+        this.sortField = sortField;
+        this.sortOrder = sortOrder;
+        this.filter = filter;
+        this.page = page;
+        this.pageSize = pageSize;
+        this.limit = limit;
+        this.hashCode = Objects.hashCode(scopePath, documentTypes, sortField, sortOrder, filter, page, pageSize, limit);
+    }
+
+    public String getScopePath() {
+        return scopePath;
+    }
+
+    public String getDocumentTypes() {
+        return documentTypes;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public String getSortOrder() {
+        return sortOrder;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Number of items fetched by the query, may differ from page size (e.g. for count-free pagination)
+     *
+     * @return query limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks if a change at given path could affect results of this query
+     *
+     * @param path absolute path of changed item
+     * @return true if path is within (or above) query scope
+     */
+    public boolean isAffectedBy(final String path) {
+        return scopePath == null || ContentChangeListener.isAffected(path, scopePath);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final QueryCacheKey other = (QueryCacheKey) o;
+        return page == other.page
+                && pageSize == other.pageSize
+                && limit == other.limit
+                && Objects.equal(scopePath, other.scopePath)
+                && Objects.equal(documentTypes, other.documentTypes)
+                && Objects.equal(sortField, other.sortField)
+                && Objects.equal(sortOrder, other.sortOrder)
+                && Objects.equal(filter, other.filter);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("QueryCacheKey{");
+        sb.append("scopePath='").append(scopePath).append('\'');
+        sb.append(", documentTypes='").append(documentTypes).append('\'');
+        sb.append(", sortField='").append(sortField).append('\'');
+        sb.append(", sortOrder='").append(sortOrder).append('\'');
+        sb.append(", page=").append(page);
+        sb.append(", pageSize=").append(pageSize);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
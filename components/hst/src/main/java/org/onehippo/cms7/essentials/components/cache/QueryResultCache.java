@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.cache;
+
+import javax.annotation.Nullable;
+
+/**
+ * Cache for list query results. Entries only hold bean identifiers and the total size, so they can safely be
+ * shared between requests (and JCR sessions).
+ *
+ * @version "$Id$"
+ */
+public interface QueryResultCache extends ContentChangeAware {
+
+    /**
+     * Returns cached result for given key
+     *
+     * @param key cache key
+     * @return null if nothing cached (or entry expired)
+     */
+    @Nullable
+    CachedQueryResult get(QueryCacheKey key);
+
+    void put(QueryCacheKey key, CachedQueryResult result);
+
+    /**
+     * Removes all entries
+     */
+    void clear();
+}
@@ -44,13 +44,25 @@ public interface EssentialsDocumentListComponentInfo extends EssentialsPageable,
     String getPath();
 
 
-    @Parameter(name = "includeSubtypes", required = false, displayName = "Include document subtypes")
+    /**
+     * NOTE: subtypes of the configured document types are only included when set, by default only documents of
+     * exactly the configured types are listed.
+     */
+    @Parameter(name = "includeSubtypes", required = false, displayName = "Include document subtypes", description = "Also list subtypes of configured document types (default: exact types only)")
     Boolean getIncludeSubtypes();
 
 
     @Parameter(name = "documentTypes", required = false, displayName = "Document types (comma separated)")
     String getDocumentTypes();
 
+    @Parameter(name = "cacheResults", required = false, displayName = "Cache query results", description = "Cache results of identical (live) list queries")
+    Boolean getCacheResults();
+
+    @Parameter(name = "cursorPagination", required = false, displayName = "Use cursor pagination", description = "Page using a cursor on sort field instead of an offset (requires sort field)")
+    Boolean getCursorPagination();
+
+    @Parameter(name = "skipTotalCount", required = false, displayName = "Skip total count", description = "Only check if there is a next page, total number of results is computed on demand")
+    Boolean getSkipTotalCount();
 
 
 }
@@ -40,4 +40,15 @@ public interface EssentialsMenuComponentInfo {
     @Parameter(name = "selectedMenu", required = false, defaultValue = "true", displayName = "Only show selected menu level")
     Boolean getShowOnlySelectedLevel();
 
+    /**
+     * Expose a precomputed (shared) site menu as {@code cachedMenu}, only selection state is computed per request.
+     * The {@code HstSiteMenu} is then not resolved and {@code menu} is not set, so templates should render
+     * {@code cachedMenu} if present and {@code menu} otherwise. Menus containing repository based items are never
+     * cached, nor are menus of preview and channel manager requests.
+     *
+     * @return true if menu should be cached
+     */
+    @Parameter(name = "cacheMenu", required = false, defaultValue = "false", displayName = "Cache menu")
+    Boolean getCacheMenu();
+
 }
@@ -16,6 +16,7 @@
 
 package org.onehippo.cms7.essentials.components.info;
 
+import org.hippoecm.hst.core.parameters.DropDownList;
 import org.hippoecm.hst.core.parameters.Parameter;
 
 /**
@@ -34,6 +35,18 @@ public interface EssentialsNewsComponentInfo extends EssentialsDocumentListCompo
     @Parameter(name = "documentDateField", required = false, displayName = "Field that contains document date (for hiding)")
     String getDocumentDateField();
 
+    /**
+     * Granularity of the current date used for hiding documents. The default {@code day} is the granularity
+     * the date filter always used; {@code minute} and {@code hour} hide documents more precisely, at the cost of
+     * queries that change (and therefore miss caches) more often.
+     *
+     * @return one of {@code minute}, {@code hour} or {@code day}
+     * @see org.onehippo.cms7.essentials.components.utils.TimeBucket
+     */
+    @Parameter(name = "dateBucket", defaultValue = "day", required = false, displayName = "Date granularity (for hiding)")
+    @DropDownList(value = {"minute", "hour", "day"})
+    String getDateBucket();
+
     @Override
     @Parameter(name = "documentTypes", required = true, displayName = "News Document types (comma separated)")
     String getDocumentTypes();
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuItemConfiguration;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.util.PathUtils;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable, request independent representation of a site menu for a single mount: all items are flattened (depth
+ * first) into a list, links are created up front. Selection state is computed per request, see
+ * {@link SelectedSiteMenu}.
+ *
+ * @version "$Id$"
+ */
+public final class CachedSiteMenu {
+
+    private final String name;
+    private final List<Item> items;
+    private final List<Item> rootItems;
+
+    private CachedSiteMenu(final String name, final List<Item> items, final List<Item> rootItems) {
+        this.name = name;
+        this.items = items;
+        this.rootItems = rootItems;
+    }
+
+    /**
+     * Creates a site menu from its configuration.
+     *
+     * @param name           site menu name
+     * @param configurations root item configurations
+     * @param context        request context, used to create links
+     * @param mount          mount links are created for
+     * @return site menu or null if menu contains repository based items (which can't be precomputed)
+     */
+    @Nullable
+    public static CachedSiteMenu create(final String name, final List<HstSiteMenuItemConfiguration> configurations,
+                                        final HstRequestContext context, final Mount mount) {
+        final List<Item> items = new ArrayList<>();
+        final List<Item> rootItems = new ArrayList<>();
+        for (HstSiteMenuItemConfiguration configuration : configurations) {
+            final Item item = addItem(configuration, -1, 1, items, context, mount);
+            if (item == null) {
+                return null;
+            }
+            rootItems.add(item);
+        }
+        return new CachedSiteMenu(name, ImmutableList.copyOf(items), ImmutableList.copyOf(rootItems));
+    }
+
+    private static Item addItem(final HstSiteMenuItemConfiguration configuration, final int parentIndex, final int depth,
+                                final List<Item> items, final HstRequestContext context, final Mount mount) {
+        if (configuration.isRepositoryBased()) {
+            return null;
+        }
+        final int index = items.size();
+        final String siteMapItemPath = configuration.getSiteMapItemPath() == null ? null : PathUtils.normalizePath(configuration.getSiteMapItemPath());
+        HstLink link = null;
+        if (siteMapItemPath != null) {
+            final Mount linkMount = Strings.isNullOrEmpty(configuration.getMountAlias()) ? mount : context.getMount(configuration.getMountAlias());
+            if (linkMount != null) {
+                link = context.getHstLinkCreator().create(siteMapItemPath, linkMount);
+            }
+        }
+        // reserve position, so items are ordered depth first
+        items.add(null);
+        final List<Item> children = new ArrayList<>();
+        for (HstSiteMenuItemConfiguration child : configuration.getChildItemConfigurations()) {
+            final Item childItem = addItem(child, index, depth + 1, items, context, mount);
+            if (childItem == null) {
+                return null;
+            }
+            children.add(childItem);
+        }
+        final Map<String, String> parameters = configuration.getParameters() == null
+                ? Collections.<String, String>emptyMap() : configuration.getParameters();
+        final Item item = new Item(index, parentIndex, depth, configuration.getName(), siteMapItemPath, configuration.getExternalLink(),
+                link, ImmutableMap.copyOf(parameters), ImmutableList.copyOf(children));
+        items.set(index, item);
+        return item;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return all items, depth first
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<Item> getRootItems() {
+        return rootItems;
+    }
+
+    /**
+     * Immutable menu item
+     */
+    public static final class Item {
+
+        private final int index;
+        private final int parentIndex;
+        private final int depth;
+        private final String name;
+        private final String siteMapItemPath;
+        private final String externalLink;
+        private final HstLink hstLink;
+        private final Map<String, String> parameters;
+        private final List<Item> children;
+
+        private Item(final int index, final int parentIndex, final int depth, final String name, final String siteMapItemPath,
+                     final String externalLink, final HstLink hstLink, final Map<String, String> parameters, final List<Item> children) {
+            this.index = index;
+            this.parentIndex = parentIndex;
+            this.depth = depth;
+            this.name = name;
+            this.siteMapItemPath = siteMapItemPath;
+            this.externalLink = externalLink;
+            this.hstLink = hstLink;
+            this.parameters = parameters;
+            this.children = children;
+        }
+
+        /**
+         * @return position within flattened menu
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return position of parent item within flattened menu, -1 for root items
+         */
+        public int getParentIndex() {
+            return parentIndex;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        public String getSiteMapItemPath() {
+            return siteMapItemPath;
+        }
+
+        @Nullable
+        public String getExternalLink() {
+            return externalLink;
+        }
+
+        @Nullable
+        public HstLink getHstLink() {
+            return hstLink;
+        }
+
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        public List<Item> getChildren() {
+            return children;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.cache.ContentChangeAware;
+import org.onehippo.cms7.essentials.components.cache.ContentChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared repository menu trees. Content changes (see {@link ContentChangeListener}) below the root of a tree are
+ * recorded, and on next use only the affected subtrees are rebuilt.
+ *
+ * @version "$Id$"
+ */
+public final class RepositoryMenuCache implements ContentChangeAware {
+
+    /**
+     * Time to live of cached trees, also limits staleness when content change events are missed
+     */
+    public static final int DEFAULT_TTL_MINUTES = 30;
+    /**
+     * Max. number of cached trees, least recently used trees are dropped (and rebuilt when needed) when exceeded
+     */
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static Logger log = LoggerFactory.getLogger(RepositoryMenuCache.class);
+    private static final RepositoryMenuCache INSTANCE = new RepositoryMenuCache();
+
+    static {
+        ContentChangeListener.register(INSTANCE);
+    }
+
+    private final Cache<Key, Entry> entries = CacheBuilder.newBuilder()
+            .expireAfterWrite(DEFAULT_TTL_MINUTES, TimeUnit.MINUTES)
+            .maximumSize(DEFAULT_MAX_SIZE)
+            .build();
+
+    private RepositoryMenuCache() {
+    }
+
+    public static RepositoryMenuCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns (up to date) menu tree for given root
+     *
+     * @param key         cache key
+     * @param rootBean    root folder
+     * @param maxDepth    number of levels below root
+     * @param folderLinks create links for folders
+     * @param context     current request context
+     * @return menu tree
+     */
+    public RepositoryMenuTree get(final Key key, final HippoBean rootBean, final int maxDepth, final boolean folderLinks,
+                                  final HstRequestContext context) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            entry = new Entry(RepositoryMenuTree.build(rootBean, maxDepth, folderLinks, context));
+            entries.put(key, entry);
+            return entry.tree;
+        }
+        if (!entry.changes.isEmpty()) {
+            synchronized (entry) {
+                String path;
+                while ((path = entry.changes.poll()) != null) {
+                    entry.tree = refresh(entry.tree, path, rootBean, maxDepth, folderLinks, context);
+                }
+            }
+        }
+        return entry.tree;
+    }
+
+    private static RepositoryMenuTree refresh(final RepositoryMenuTree tree, final String path, final HippoBean rootBean,
+                                              final int maxDepth, final boolean folderLinks, final HstRequestContext context) {
+        RepositoryMenuTree.Item item = tree.findDeepest(path);
+        while (item != null && item != tree.getRoot()) {
+            final HippoBean bean = getBean(context, item.getPath());
+            if (bean != null) {
+                log.debug("Refreshing repository menu below {}", item.getPath());
+                return tree.replace(item.getPath(), tree.createItem(bean, item.getDepth(), context));
+            }
+            // item removed (or moved): refresh its parent
+            item = tree.findDeepest(item.getPath().substring(0, item.getPath().lastIndexOf('/')));
+        }
+        log.debug("Rebuilding repository menu {}", tree.getRoot().getPath());
+        return RepositoryMenuTree.build(rootBean, maxDepth, folderLinks, context);
+    }
+
+    private static HippoBean getBean(final HstRequestContext context, final String path) {
+        try {
+            final Object bean = context.getObjectBeanManager().getObject(path);
+            return bean instanceof HippoBean ? (HippoBean) bean : null;
+        } catch (ObjectBeanManagerException e) {
+            log.debug("Couldn't fetch bean for {}", path, e);
+        }
+        return null;
+    }
+
+    @Override
+    public void invalidate(final String path) {
+        for (Map.Entry<Key, Entry> mapEntry : entries.asMap().entrySet()) {
+            final String rootPath = mapEntry.getKey().rootPath;
+            if (!ContentChangeListener.isAffected(path, rootPath)) {
+                continue;
+            }
+            if (path.startsWith(rootPath + '/')) {
+                mapEntry.getValue().changes.add(path);
+            } else {
+                // root itself (or one of its ancestors) changed
+                entries.invalidate(mapEntry.getKey());
+            }
+        }
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    private static final class Entry {
+
+        private volatile RepositoryMenuTree tree;
+        private final Queue<String> changes = new ConcurrentLinkedQueue<>();
+
+        private Entry(final RepositoryMenuTree tree) {
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Identifies a menu tree: root, depth, folder links and mount links were created for
+     */
+    public static final class Key {
+
+        private final String rootPath;
+        private final int depth;
+        private final boolean folderLinks;
+        private final String mount;
+
+        /**
+         * @param rootPath    canonical path of the root folder
+         * @param depth       number of levels below root
+         * @param folderLinks create links for folders
+         * @param mount       identifier of the mount (including live/preview)
+         */
+        public Key(final String rootPath, final int depth, final boolean folderLinks, final String mount) {
+            this.rootPath = rootPath;
+            this.depth = depth;
+            this.folderLinks = folderLinks;
+            this.mount = mount;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return depth == other.depth
+                    && folderLinks == other.folderLinks
+                    && Objects.equal(rootPath, other.rootPath)
+                    && Objects.equal(mount, other.mount);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(rootPath, depth, folderLinks, mount);
+        }
+    }
+}
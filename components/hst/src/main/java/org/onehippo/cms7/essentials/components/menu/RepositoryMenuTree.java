@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.jcr.RepositoryException;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoDocumentBean;
+import org.hippoecm.hst.content.beans.standard.HippoFolderBean;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Immutable, session independent folder/document tree used by repository based menus. Titles and links are computed
+ * when the tree is built. Changed parts of the tree are rebuilt by {@link #replace(String, Item)}, which copies only
+ * the path from the root to the replaced item.
+ *
+ * @version "$Id$"
+ */
+public final class RepositoryMenuTree {
+
+    private static Logger log = LoggerFactory.getLogger(RepositoryMenuTree.class);
+
+    private final Item root;
+    private final int maxDepth;
+    private final boolean folderLinks;
+
+    private RepositoryMenuTree(final Item root, final int maxDepth, final boolean folderLinks) {
+        this.root = root;
+        this.maxDepth = maxDepth;
+        this.folderLinks = folderLinks;
+    }
+
+    /**
+     * Builds tree for given root folder
+     *
+     * @param rootBean    root folder
+     * @param maxDepth    number of levels below root
+     * @param folderLinks create links for folders
+     * @param context     request context, used to create links
+     * @return menu tree
+     */
+    public static RepositoryMenuTree build(final HippoBean rootBean, final int maxDepth, final boolean folderLinks, final HstRequestContext context) {
+        return new RepositoryMenuTree(createItem(rootBean, 0, maxDepth, folderLinks, context), maxDepth, folderLinks);
+    }
+
+    /**
+     * Builds (sub)tree item for given bean
+     *
+     * @param bean    bean of the item
+     * @param depth   depth of the item (root is 0)
+     * @param context request context, used to create links
+     * @return new item
+     */
+    public Item createItem(final HippoBean bean, final int depth, final HstRequestContext context) {
+        return createItem(bean, depth, maxDepth, folderLinks, context);
+    }
+
+    private static Item createItem(final HippoBean bean, final int depth, final int maxDepth, final boolean folderLinks,
+                                   final HstRequestContext context) {
+        final boolean folder = bean.isHippoFolderBean();
+        final List<Item> children = new ArrayList<>();
+        if (folder && depth < maxDepth) {
+            final HippoFolderBean folderBean = (HippoFolderBean) bean;
+            for (HippoFolderBean child : folderBean.getFolders()) {
+                children.add(createItem(child, depth + 1, maxDepth, folderLinks, context));
+            }
+            for (HippoDocumentBean child : folderBean.getDocuments()) {
+                children.add(createItem(child, depth + 1, maxDepth, folderLinks, context));
+            }
+        }
+        final HstLink link = !folder || folderLinks ? context.getHstLinkCreator().create(bean, context) : null;
+        return new Item(bean.getCanonicalPath(), getTitle(bean, folder), link, folder, depth, ImmutableList.copyOf(children));
+    }
+
+    private static String getTitle(final HippoBean bean, final boolean folder) {
+        if (!folder) {
+            try {
+                final String namespace = bean.getNode().getPrimaryNodeType().getName().split(":")[0];
+                final String title = bean.getProperty(namespace + ":title");
+                if (title != null) {
+                    return title;
+                }
+            } catch (RepositoryException e) {
+                log.debug("Error reading title of {}", bean.getPath(), e);
+            }
+        }
+        return bean.getName();
+    }
+
+    public Item getRoot() {
+        return root;
+    }
+
+    /**
+     * Finds deepest item which is (an ancestor of) given path
+     *
+     * @param path absolute path
+     * @return item or null if path is not within this tree
+     */
+    @Nullable
+    public Item findDeepest(final String path) {
+        if (!root.contains(path)) {
+            return null;
+        }
+        Item current = root;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (Item child : current.children) {
+                if (child.contains(path)) {
+                    current = child;
+                    found = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns a tree in which item with given path is replaced (or removed)
+     *
+     * @param path        path of the item to replace
+     * @param replacement new item, null to remove item
+     * @return new tree, this tree if path is not part of it
+     */
+    public RepositoryMenuTree replace(final String path, @Nullable final Item replacement) {
+        if (root.path.equals(path)) {
+            return replacement == null ? this : new RepositoryMenuTree(replacement, maxDepth, folderLinks);
+        }
+        final Item newRoot = replace(root, path, replacement);
+        return newRoot == root ? this : new RepositoryMenuTree(newRoot, maxDepth, folderLinks);
+    }
+
+    private static Item replace(final Item item, final String path, final Item replacement) {
+        final List<Item> children = new ArrayList<>(item.children.size());
+        boolean changed = false;
+        for (Item child : item.children) {
+            if (child.path.equals(path)) {
+                changed = true;
+                if (replacement != null) {
+                    children.add(replacement);
+                }
+            } else if (!changed && child.contains(path)) {
+                final Item newChild = replace(child, path, replacement);
+                changed = newChild != child;
+                children.add(newChild);
+            } else {
+                children.add(child);
+            }
+        }
+        if (!changed) {
+            return item;
+        }
+        return new Item(item.path, item.title, item.link, item.folder, item.depth, ImmutableList.copyOf(children));
+    }
+
+    /**
+     * Immutable menu item
+     */
+    public static final class Item {
+
+        private final String path;
+        private final String title;
+        private final HstLink link;
+        private final boolean folder;
+        private final int depth;
+        private final List<Item> children;
+
+        private Item(final String path, final String title, final HstLink link, final boolean folder, final int depth, final List<Item> children) {
+            this.path = path;
+            this.title = title;
+            this.link = link;
+            this.folder = folder;
+            this.depth = depth;
+            this.children = children;
+        }
+
+        /**
+         * @param otherPath absolute path
+         * @return true if given path is this item's path or a descendant of it
+         */
+        public boolean contains(final String otherPath) {
+            return otherPath.equals(path) || (otherPath.startsWith(path) && otherPath.charAt(path.length()) == '/');
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        @Nullable
+        public HstLink getLink() {
+            return link;
+        }
+
+        public boolean isFolder() {
+            return folder;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public List<Item> getChildren() {
+            return children;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.core.linking.HstLink;
+
+/**
+ * Request specific view of a {@link RepositoryMenuTree} item: adds active state for the content bean of current
+ * request. Properties are named after {@code RepositoryMenuItem} ones ({@code title}, {@code folder},
+ * {@code active}, {@code children}).
+ *
+ * @version "$Id$"
+ */
+public final class RepositoryMenuView {
+
+    private final RepositoryMenuTree.Item item;
+    private final String activePath;
+
+    /**
+     * @param item       tree item
+     * @param activePath canonical path of the content bean of current request, may be null
+     */
+    public RepositoryMenuView(final RepositoryMenuTree.Item item, @Nullable final String activePath) {
+        this.item = item;
+        this.activePath = activePath;
+    }
+
+    public String getTitle() {
+        return item.getTitle();
+    }
+
+    @Nullable
+    public HstLink getLink() {
+        return item.getLink();
+    }
+
+    public boolean isFolder() {
+        return item.isFolder();
+    }
+
+    public int getDepth() {
+        return item.getDepth();
+    }
+
+    /**
+     * @return true if this item represents the content bean of current request
+     */
+    public boolean isActive() {
+        return activePath != null && activePath.equals(item.getPath());
+    }
+
+    /**
+     * @return true if content bean of current request is this item or one of its descendants
+     */
+    public boolean isExpanded() {
+        return activePath != null && item.contains(activePath);
+    }
+
+    public List<RepositoryMenuView> getChildren() {
+        final List<RepositoryMenuView> children = new ArrayList<>(item.getChildren().size());
+        for (RepositoryMenuTree.Item child : item.getChildren()) {
+            children.add(new RepositoryMenuView(child, activePath));
+        }
+        return children;
+    }
+}
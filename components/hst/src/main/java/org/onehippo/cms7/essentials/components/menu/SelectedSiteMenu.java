@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.core.linking.HstLink;
+
+import com.google.common.base.Strings;
+
+/**
+ * Request specific view of a {@link CachedSiteMenu}: adds selection state. Item properties are named after
+ * {@code HstSiteMenu} and {@code HstSiteMenuItem} ones ({@code siteMenuItems}, {@code childMenuItems},
+ * {@code hstLink}, {@code selected}, {@code expanded}, ...), so menu templates can render both. It is not an
+ * {@code HstSiteMenu} though: pass the site menu itself to tags like {@code hst:cmseditmenu}.
+ *
+ * @version "$Id$"
+ */
+public final class SelectedSiteMenu {
+
+    private final CachedSiteMenu menu;
+    private final int selectedIndex;
+
+    private SelectedSiteMenu(final CachedSiteMenu menu, final int selectedIndex) {
+        this.menu = menu;
+        this.selectedIndex = selectedIndex;
+    }
+
+    /**
+     * Selects item matching current request: the item linking to given path, or when none does,
+     * the item with the longest (sitemap item) path the given path starts with.
+     *
+     * @param menu     cached menu
+     * @param pathInfo (normalized) path info of the resolved sitemap item
+     * @return menu with selection state
+     */
+    public static SelectedSiteMenu select(final CachedSiteMenu menu, @Nullable final String pathInfo) {
+        int selected = -1;
+        if (!Strings.isNullOrEmpty(pathInfo)) {
+            int bestLength = -1;
+            for (CachedSiteMenu.Item item : menu.getItems()) {
+                final String path = item.getSiteMapItemPath();
+                if (Strings.isNullOrEmpty(path)) {
+                    continue;
+                }
+                if (path.equals(pathInfo)) {
+                    selected = item.getIndex();
+                    break;
+                }
+                if (path.length() > bestLength && pathInfo.startsWith(path) && pathInfo.charAt(path.length()) == '/') {
+                    selected = item.getIndex();
+                    bestLength = path.length();
+                }
+            }
+        }
+        return new SelectedSiteMenu(menu, selected);
+    }
+
+    public String getName() {
+        return menu.getName();
+    }
+
+    public List<MenuItem> getSiteMenuItems() {
+        return wrap(menu.getRootItems(), null);
+    }
+
+    @Nullable
+    public MenuItem getSelectSiteMenuItem() {
+        if (selectedIndex < 0) {
+            return null;
+        }
+        return wrapWithParents(menu.getItems().get(selectedIndex));
+    }
+
+    /**
+     * @return deepest expanded item (the selected item)
+     */
+    @Nullable
+    public MenuItem getDeepestExpandedItem() {
+        return getSelectSiteMenuItem();
+    }
+
+    private boolean isExpanded(final CachedSiteMenu.Item item) {
+        int index = selectedIndex;
+        while (index >= 0) {
+            if (index == item.getIndex()) {
+                return true;
+            }
+            index = menu.getItems().get(index).getParentIndex();
+        }
+        return false;
+    }
+
+    private MenuItem wrapWithParents(final CachedSiteMenu.Item item) {
+        final MenuItem parent = item.getParentIndex() < 0 ? null : wrapWithParents(menu.getItems().get(item.getParentIndex()));
+        return new MenuItem(item, parent);
+    }
+
+    private List<MenuItem> wrap(final List<CachedSiteMenu.Item> items, final MenuItem parent) {
+        final List<MenuItem> wrapped = new ArrayList<>(items.size());
+        for (CachedSiteMenu.Item item : items) {
+            wrapped.add(new MenuItem(item, parent));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Menu item with selection state
+     */
+    public final class MenuItem {
+
+        private final CachedSiteMenu.Item item;
+        private final MenuItem parent;
+
+        private MenuItem(final CachedSiteMenu.Item item, final MenuItem parent) {
+            this.item = item;
+            this.parent = parent;
+        }
+
+        public String getName() {
+            return item.getName();
+        }
+
+        public int getDepth() {
+            return item.getDepth();
+        }
+
+        @Nullable
+        public HstLink getHstLink() {
+            return item.getHstLink();
+        }
+
+        @Nullable
+        public String getExternalLink() {
+            return item.getExternalLink();
+        }
+
+        public Map<String, String> getParameters() {
+            return item.getParameters();
+        }
+
+        public boolean isSelected() {
+            return item.getIndex() == selectedIndex;
+        }
+
+        public boolean isExpanded() {
+            return isExpanded(item);
+        }
+
+        @Nullable
+        public MenuItem getParentItem() {
+            return parent;
+        }
+
+        public List<MenuItem> getChildMenuItems() {
+            return wrap(item.getChildren(), this);
+        }
+
+        public SelectedSiteMenu getHstSiteMenu() {
+            return SelectedSiteMenu.this;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.menu;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuConfiguration;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared cache of precomputed site menus. Menus are keyed by (the identity of) their HST configuration object and
+ * mount. HST creates new configuration objects whenever HST configuration changes, so stale menus are never used and
+ * (weakly referenced) entries disappear together with the old configuration.
+ *
+ * @version "$Id$"
+ */
+public final class SiteMenuCache {
+
+    private static Logger log = LoggerFactory.getLogger(SiteMenuCache.class);
+    private static final SiteMenuCache INSTANCE = new SiteMenuCache();
+
+    private final Cache<HstSiteMenuConfiguration, ConcurrentMap<String, Optional<CachedSiteMenu>>> cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private SiteMenuCache() {
+    }
+
+    public static SiteMenuCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns precomputed menu for given configuration and mount, creating it if needed
+     *
+     * @param configuration site menu configuration
+     * @param context       current request context
+     * @param mount         mount of current request
+     * @return cached menu or null if menu can't be precomputed (e.g. it has repository based items)
+     */
+    @Nullable
+    public CachedSiteMenu get(final HstSiteMenuConfiguration configuration, final HstRequestContext context, final Mount mount) {
+        final ConcurrentMap<String, Optional<CachedSiteMenu>> menus;
+        try {
+            menus = cache.get(configuration, new Callable<ConcurrentMap<String, Optional<CachedSiteMenu>>>() {
+                @Override
+                public ConcurrentMap<String, Optional<CachedSiteMenu>> call() {
+                    return new ConcurrentHashMap<>();
+                }
+            });
+        } catch (ExecutionException e) {
+            log.error("Error accessing site menu cache", e);
+            return null;
+        }
+        final String mountKey = mount.getIdentifier() + (mount.isPreview() ? ":preview" : ":live");
+        Optional<CachedSiteMenu> menu = menus.get(mountKey);
+        if (menu == null) {
+            menu = Optional.fromNullable(CachedSiteMenu.create(configuration.getName(), configuration.getSiteMenuConfigurationItems(), context, mount));
+            if (!menu.isPresent()) {
+                log.info("Site menu {} contains repository based items and is not cached", configuration.getName());
+            }
+            menus.putIfAbsent(mountKey, menu);
+        }
+        return menu.orNull();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
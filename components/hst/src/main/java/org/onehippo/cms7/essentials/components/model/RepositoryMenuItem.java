@@ -31,6 +31,7 @@ public class RepositoryMenuItem {
     private List<RepositoryMenuItem> children;
     private boolean isFolder;
     private boolean isActive;
+    private String title;
 
     public RepositoryMenuItem(HippoBean bean, HippoBean contentBean) {
         this.bean = bean;
@@ -44,6 +45,7 @@ public class RepositoryMenuItem {
 
     public void setBean(HippoBean bean) {
         this.bean = bean;
+        this.title = null;
     }
 
     public List<RepositoryMenuItem> getChildren() {
@@ -52,6 +54,7 @@ public class RepositoryMenuItem {
 
     public void setChildren(List<RepositoryMenuItem> children) {
         isFolder = true;
+        title = null;
         this.children = children;
     }
 
@@ -61,9 +64,17 @@ public class RepositoryMenuItem {
 
     public void setFolder(boolean folder) {
         isFolder = folder;
+        title = null;
     }
 
     public String getTitle() throws RepositoryException {
+        if (title == null) {
+            title = computeTitle();
+        }
+        return title;
+    }
+
+    private String computeTitle() throws RepositoryException {
         if (isFolder) {
             return bean.getName();
         } else {
@@ -61,6 +61,27 @@ public class IterablePagination<T extends HippoBean> extends Pageable<T> {
         this.items = new ArrayList<>(items);
     }
 
+    private IterablePagination(final int totalSize, final int currentPage, final int pageSize, final List<T> items) {
+        super(totalSize, currentPage, pageSize);
+        this.items = items;
+    }
+
+    /**
+     * Creates pageable when the paging has been done beforehand and items are already resolved,
+     * for example when items are fetched from a query result cache. Given list is used as is (not copied).
+     *
+     * @param items       items of the current page
+     * @param totalSize   total number of items (of all pages)
+     * @param pageSize    page size
+     * @param currentPage current page number
+     * @param <T>         type of the items
+     * @return pageable of the current page
+     */
+    public static <T extends HippoBean> IterablePagination<T> forPage(final List<T> items, final int totalSize,
+                                                                      final int pageSize, final int currentPage) {
+        return new IterablePagination<>(totalSize, currentPage, pageSize, items);
+    }
+
     /**
      * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
      * this class, for instance paging on facet navigation results.
@@ -139,6 +160,22 @@ public class IterablePagination<T extends HippoBean> extends Pageable<T> {
     }
 
 
+    /**
+     * Sets keyset pagination cursor for the next page, based on last item of current (full) page.
+     *
+     * @param sortField field query results are sorted on
+     * @see PageCursor
+     */
+    public void processNextCursor(final String sortField) {
+        if (items == null || items.isEmpty() || items.size() < getPageSize() || !isNext()) {
+            return;
+        }
+        final PageCursor cursor = PageCursor.forBean(items.get(items.size() - 1), sortField);
+        if (cursor != null) {
+            setNextCursor(cursor.encode());
+        }
+    }
+
     protected void processDocumentsOffset(HippoDocumentIterator<T> documentsIterator) {
         items = new ArrayList<>();
         int startAt = getStartOffset();
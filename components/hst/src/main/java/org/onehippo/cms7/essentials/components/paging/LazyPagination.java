@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.paging;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.xml.bind.annotation.XmlElement;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoDocumentIterator;
+
+/**
+ * LazyPagination: a Pageable which doesn't materialize its items up front. Items of the current page are loaded from
+ * the wrapped document iterator while they are iterated (e.g. by a template), so beans which are never rendered are
+ * never created. To be used when paging is not done beforehand, for instance paging on facet navigation results.
+ * <p/>
+ * NOTE: the wrapped iterator is bound to the JCR session of the current request, so items must be consumed
+ * within that request.
+ *
+ * @version "$Id$"
+ */
+public class LazyPagination<T extends HippoBean> extends Pageable<T> {
+
+    private final LazyPageList<T> items;
+
+    /**
+     * @param documents  document iterator positioned at the start of the complete result set
+     * @param totalSize  total number of results (e.g. facet count, so iterator size doesn't have to be fetched)
+     * @param pageSize   page size
+     * @param pageNumber current page
+     */
+    public LazyPagination(final HippoDocumentIterator<T> documents, final int totalSize, final int pageSize, final int pageNumber) {
+        super(totalSize, pageNumber, pageSize);
+        this.items = new LazyPageList<>(documents, getStartOffset(), getPageSize());
+    }
+
+    /**
+     * Get paged items. Returned list loads items on demand: iterating loads beans one by one, {@code get(index)} loads
+     * beans up to given index and {@code size()} loads the complete page.
+     *
+     * @return paged items
+     */
+    @XmlElement
+    @Override
+    public List<? extends HippoBean> getItems() {
+        return items;
+    }
+
+    /**
+     * Read-only list view of a single page of a document iterator
+     */
+    private static final class LazyPageList<T extends HippoBean> extends AbstractList<T> {
+
+        private final HippoDocumentIterator<T> documents;
+        private final int startOffset;
+        private final int pageSize;
+        private final List<T> loaded = new ArrayList<>();
+        private boolean started;
+        private boolean exhausted;
+
+        private LazyPageList(final HippoDocumentIterator<T> documents, final int startOffset, final int pageSize) {
+            this.documents = documents;
+            this.startOffset = startOffset;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public T get(final int index) {
+            if (index < 0 || !loadUpTo(index)) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return loaded.get(index);
+        }
+
+        @Override
+        public int size() {
+            loadUpTo(pageSize - 1);
+            return loaded.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !loadUpTo(0);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    return loadUpTo(cursor);
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return loaded.get(cursor++);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        /**
+         * Loads beans until given index is available or the page (or iterator) is exhausted
+         *
+         * @return true if item at given index is available
+         */
+        private boolean loadUpTo(final int index) {
+            if (index >= pageSize) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                if (startOffset > 0) {
+                    documents.skip(startOffset);
+                }
+            }
+            while (loaded.size() <= index && !exhausted) {
+                if (!documents.hasNext()) {
+                    exhausted = true;
+                    break;
+                }
+                final T bean = documents.next();
+                if (bean != null) {
+                    loaded.add(bean);
+                }
+                if (loaded.size() == pageSize) {
+                    exhausted = true;
+                }
+            }
+            return index < loaded.size();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.content.beans.query.HstQueryResult;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+
+/**
+ * Count-free pagination: query is executed with a limit of {@code pageSize + 1}, so existence of a next page is
+ * known without counting all hits. {@link #getTotal()} (and all values derived from it, like {@link #getTotalPages()})
+ * is an approximation: items up to current page, plus one if there is a next page. The exact total is only
+ * computed when asked for through {@link #getExactTotal()}, which does not change the approximate total.
+ *
+ * @version "$Id$"
+ */
+public class LazyTotalPagination<T extends HippoBean> extends IterablePagination<T> {
+
+    private final boolean hasNext;
+    private final HstQueryResult result;
+    private final int totalOffset;
+    private long exactTotal = -1;
+
+    /**
+     * Constructor to be used with a query executed with a limit of {@code pageSize + 1}
+     *
+     * @param result      query result
+     * @param pageSize    page size
+     * @param currentPage current page
+     * @param offset      position of first item within complete result set
+     * @param totalOffset number of items not included in query total size (e.g. skipped by a cursor filter)
+     */
+    public LazyTotalPagination(final HstQueryResult result, final int pageSize, final int currentPage, final int offset, final int totalOffset) {
+        this(LazyTotalPagination.<T>collect(result.getHippoBeans()), pageSize, currentPage, offset, result, totalOffset);
+    }
+
+    /**
+     * Constructor to be used when items are already fetched (at most {@code pageSize + 1} of them)
+     *
+     * @param fetched     fetched items, an extra item indicates there is a next page
+     * @param pageSize    page size
+     * @param currentPage current page
+     * @param offset      position of first item within complete result set
+     * @param result      query result used to lazily compute total, if null only approximate total is available
+     * @param totalOffset number of items not included in query total size (e.g. skipped by a cursor filter)
+     */
+    public LazyTotalPagination(final List<T> fetched, final int pageSize, final int currentPage, final int offset,
+                               @Nullable final HstQueryResult result, final int totalOffset) {
+        super(fetched.size() > pageSize ? fetched.subList(0, pageSize) : fetched, offset + fetched.size(), pageSize, currentPage);
+        this.hasNext = fetched.size() > pageSize;
+        this.result = result;
+        this.totalOffset = totalOffset;
+    }
+
+    @Override
+    public boolean isNext() {
+        return hasNext;
+    }
+
+    /**
+     * Returns exact total number of results. NOTE: total is computed (by query result) on first invocation.
+     *
+     * @return exact total nr. of results, or approximate total (see {@link #getTotal()}) if exact total
+     * can't be computed
+     */
+    public long getExactTotal() {
+        if (exactTotal < 0) {
+            if (result == null) {
+                return getTotal();
+            }
+            exactTotal = totalOffset + result.getTotalSize();
+        }
+        return exactTotal;
+    }
+
+    /**
+     * Can exact total be computed, or is only an approximation available?
+     *
+     * @return true if {@link #getExactTotal()} returns the exact total
+     */
+    public boolean isExactTotalAvailable() {
+        return result != null;
+    }
+
+    @SuppressWarnings(UNCHECKED)
+    private static <T extends HippoBean> List<T> collect(final HippoBeanIterator beans) {
+        final List<T> items = new ArrayList<>();
+        while (beans.hasNext()) {
+            final T bean = (T) beans.nextHippoBean();
+            if (bean != null) {
+                items.add(bean);
+            }
+        }
+        return items;
+    }
+}
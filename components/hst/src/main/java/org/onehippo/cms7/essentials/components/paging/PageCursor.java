@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Calendar;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+/**
+ * Opaque keyset (search-after) pagination cursor: sort field value and identifier of the last item of a page.
+ * Next page is fetched by filtering on items sorted after the cursor instead of skipping over all previous items.
+ *
+ * @version "$Id$"
+ */
+public final class PageCursor {
+
+    /**
+     * Field used to break ties between items with equal sort value
+     */
+    public static final String IDENTIFIER_FIELD = "jcr:uuid";
+
+    private static Logger log = LoggerFactory.getLogger(PageCursor.class);
+
+    private static final char SEPARATOR = ':';
+    private static final char TYPE_DATE = 'D';
+    private static final char TYPE_LONG = 'L';
+    private static final char TYPE_DOUBLE = 'F';
+    private static final char TYPE_BOOLEAN = 'B';
+    private static final char TYPE_STRING = 'S';
+
+    private final Object value;
+    private final String identifier;
+
+    public PageCursor(final Object value, final String identifier) {
+        this.value = value;
+        this.identifier = identifier;
+    }
+
+    /**
+     * Creates cursor pointing to given bean
+     *
+     * @param bean      last bean of a page
+     * @param sortField field the query is sorted on
+     * @return cursor or null if bean has no (supported) value for sort field
+     */
+    @Nullable
+    public static PageCursor forBean(final HippoBean bean, final String sortField) {
+        if (bean == null || Strings.isNullOrEmpty(sortField)) {
+            return null;
+        }
+        final Object value = bean.getProperty(sortField);
+        if (value instanceof Calendar || value instanceof String || value instanceof Long
+                || value instanceof Double || value instanceof Boolean) {
+            return new PageCursor(value, bean.getIdentifier());
+        }
+        log.debug("Unsupported sort value for cursor pagination, field: {}, value: {}", sortField, value);
+        return null;
+    }
+
+    /**
+     * Decodes cursor as created by {@link #encode()}
+     *
+     * @param encoded encoded cursor
+     * @return cursor or null if input is empty or invalid
+     */
+    @Nullable
+    public static PageCursor decode(final String encoded) {
+        if (Strings.isNullOrEmpty(encoded)) {
+            return null;
+        }
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            final int idEnd = decoded.indexOf(SEPARATOR, 2);
+            if (idEnd < 0 || decoded.charAt(1) != SEPARATOR) {
+                log.debug("Invalid cursor: {}", encoded);
+                return null;
+            }
+            final String identifier = decoded.substring(2, idEnd);
+            final String raw = decoded.substring(idEnd + 1);
+            switch (decoded.charAt(0)) {
+                case TYPE_DATE:
+                    final Calendar calendar = Calendar.getInstance();
+                    calendar.setTimeInMillis(Long.parseLong(raw));
+                    return new PageCursor(calendar, identifier);
+                case TYPE_LONG:
+                    return new PageCursor(Long.valueOf(raw), identifier);
+                case TYPE_DOUBLE:
+                    return new PageCursor(Double.valueOf(raw), identifier);
+                case TYPE_BOOLEAN:
+                    return new PageCursor(Boolean.valueOf(raw), identifier);
+                case TYPE_STRING:
+                    return new PageCursor(raw, identifier);
+                default:
+                    log.debug("Invalid cursor type: {}", encoded);
+                    return null;
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid cursor: {}", encoded, e);
+        }
+        return null;
+    }
+
+    /**
+     * Encodes cursor into url safe string
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        final StringBuilder builder = new StringBuilder();
+        if (value instanceof Calendar) {
+            builder.append(TYPE_DATE).append(SEPARATOR).append(identifier).append(SEPARATOR).append(((Calendar) value).getTimeInMillis());
+        } else if (value instanceof Long) {
+            builder.append(TYPE_LONG).append(SEPARATOR).append(identifier).append(SEPARATOR).append(value);
+        } else if (value instanceof Double) {
+            builder.append(TYPE_DOUBLE).append(SEPARATOR).append(identifier).append(SEPARATOR).append(value);
+        } else if (value instanceof Boolean) {
+            builder.append(TYPE_BOOLEAN).append(SEPARATOR).append(identifier).append(SEPARATOR).append(value);
+        } else {
+            builder.append(TYPE_STRING).append(SEPARATOR).append(identifier).append(SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+}
@@ -54,6 +54,8 @@ public abstract class Pageable<T extends HippoBean> {
 
     private boolean showPagination = true;
 
+    private String nextCursor;
+
     /**
      * Constructor. NOTE: you can always override <code><strong>setTotal()</strong></code> method in your own class if
      * total number of items is not available immediately
@@ -331,6 +333,22 @@ public abstract class Pageable<T extends HippoBean> {
         this.showPagination = showPagination;
     }
 
+    /**
+     * Returns keyset pagination cursor pointing to the last item of this page.
+     * Only available when cursor pagination is used and there may be a next page.
+     *
+     * @return encoded cursor or null
+     * @see PageCursor
+     */
+    @XmlAttribute
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(final String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     protected int getDefaultPageRange() {
         return DEFAULT_PAGE_RANGE;
     }
@@ -16,12 +16,23 @@
 
 package org.onehippo.cms7.essentials.components.rest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.List;
 
 import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.Providers;
 import javax.xml.ws.WebServiceException;
 
 import org.apache.commons.lang.StringUtils;
@@ -42,6 +53,8 @@ import org.onehippo.cms7.essentials.components.rest.ctx.RestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.hash.Hashing;
+
 /**
  * @version "$Id$"
  */
@@ -49,7 +62,13 @@ public abstract class BaseRestResource extends AbstractResource {
 
     public static final String INVALID_SCOPE = "Invalid scope";
     public static final String UNCHECKED = "unchecked";
+    /**
+     * Document property used to compute ETag headers
+     */
+    public static final String LAST_MODIFICATION_DATE = "hippostdpubwf:lastModificationDate";
     private static Logger log = LoggerFactory.getLogger(BaseRestResource.class);
+    private static final List<Variant> STREAMING_VARIANTS = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+            MediaType.APPLICATION_XML_TYPE).add().build();
     //
 
 
@@ -65,11 +84,7 @@ public abstract class BaseRestResource extends AbstractResource {
         try {
             final HstQuery query = createQuery(context, clazz, subtypes);
             final HstQueryResult execute = query.execute();
-            return new IterablePagination<>(
-                    execute.getHippoBeans(),
-                    execute.getTotalSize(),
-                    context.getPageSize(),
-                    context.getPage());
+            return createConditionalPageable(context, execute);
         } catch (QueryException e) {
             log.error("Error finding beans", e);
         }
@@ -79,11 +94,99 @@ public abstract class BaseRestResource extends AbstractResource {
 
     protected Pageable<? extends HippoBean> executeQuery(final RestContext context, final HstQuery query) throws QueryException {
         final HstQueryResult execute = query.execute();
-        return new IterablePagination<>(
-                execute.getHippoBeans(),
-                execute.getTotalSize(),
-                context.getPageSize(),
-                context.getPage());
+        return createConditionalPageable(context, execute);
+    }
+
+    /**
+     * Streams a page of beans: beans are written to the response one by one while query results are iterated, so
+     * memory usage does not depend on page size. Media type (JSON or XML) is negotiated from the Accept header of the
+     * request. NOTE: conditional GET is not supported for streamed pages.
+     *
+     * @param context   rest context
+     * @param request   JAX-RS request (a {@code @Context} parameter of the resource method)
+     * @param providers JAX-RS providers (a {@code @Context} parameter of the resource method)
+     * @param clazz     bean type
+     * @param subtypes  include subtypes of bean type
+     * @param <T>       type of the beans
+     * @return streaming response, or {@code 406 Not Acceptable} if neither JSON nor XML is acceptable
+     * @see StreamingPageWriter
+     */
+    protected <T extends HippoBean> Response streamBeans(final RestContext context, final Request request, final Providers providers,
+                                                         final Class<T> clazz, final Subtypes subtypes) {
+        final Variant variant = request.selectVariant(STREAMING_VARIANTS);
+        if (variant == null) {
+            return Response.notAcceptable(STREAMING_VARIANTS).build();
+        }
+        try {
+            final HstQuery query = createQuery(context, clazz, subtypes);
+            final HstQueryResult execute = query.execute();
+            final StreamingPageWriter<T> writer = new StreamingPageWriter<>(execute.getHippoBeans(), clazz, execute.getTotalSize(),
+                    context.getPage(), context.getPageSize(), variant.getMediaType(), providers);
+            return Response.ok(writer, variant).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        } catch (QueryException e) {
+            log.error("Error finding beans", e);
+        }
+        return Response.serverError().build();
+    }
+
+    /**
+     * Creates pageable for a query result, supporting conditional GET requests: the ETag header is computed from
+     * identifiers and last modification dates of the beans within the page and the total size of the result. If the
+     * client already has the current version of the page (If-None-Match request header), a {@code 304 Not Modified}
+     * response is returned instead, without marshalling any bean. No Last-Modified header is sent: removing, moving or
+     * unpublishing documents changes a page without making it any newer.
+     *
+     * @param context rest context
+     * @param result  query result of the (paged) query
+     * @param <T>     type of the beans
+     * @return pageable of the current page
+     * @throws WebApplicationException with status 304 if page was not modified
+     */
+    @SuppressWarnings(UNCHECKED)
+    protected <T extends HippoBean> Pageable<T> createConditionalPageable(final RestContext context, final HstQueryResult result) {
+        final List<T> beans = new ArrayList<>(context.getPageSize());
+        final HippoBeanIterator iterator = result.getHippoBeans();
+        final StringBuilder validator = new StringBuilder();
+        while (iterator.hasNext()) {
+            final T bean = (T) iterator.nextHippoBean();
+            if (bean == null) {
+                continue;
+            }
+            beans.add(bean);
+            validator.append(bean.getIdentifier()).append(',');
+            final Calendar modified = bean.getProperty(LAST_MODIFICATION_DATE);
+            if (modified != null) {
+                validator.append(modified.getTimeInMillis());
+            }
+            validator.append(';');
+        }
+        final HttpServletRequest request = context.getRequest();
+        validator.append(result.getTotalSize()).append(';').append(context.getPage()).append(';').append(context.getPageSize())
+                .append(';').append(request.getHeader(HttpHeaders.ACCEPT));
+        final String etag = Hashing.md5().hashBytes(validator.toString().getBytes(StandardCharsets.UTF_8)).toString();
+        if (isNotModified(request, etag)) {
+            throw new WebApplicationException(Response.notModified(new EntityTag(etag)).build());
+        }
+        final HttpServletResponse response = context.getRequestContext().getServletResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.ETAG, '"' + etag + '"');
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return IterablePagination.forPage(beans, result.getTotalSize(), context.getPageSize(), context.getPage());
+    }
+
+    private static boolean isNotModified(final HttpServletRequest request, final String etag) {
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            final String value = StringUtils.removeStart(tag.trim(), "W/");
+            if ("*".equals(value) || ('"' + etag + '"').equals(value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -163,12 +266,12 @@ public abstract class BaseRestResource extends AbstractResource {
         return null;
     }
 
+    @SuppressWarnings(UNCHECKED)
     protected <T extends HippoBean> List<T> populateBeans(HstQuery query) throws QueryException {
         final HstQueryResult results = query.execute();
         final HippoBeanIterator beans = results.getHippoBeans();
         List<T> retval = new ArrayList<>();
-        if (beans.hasNext()) {
-            @SuppressWarnings({UNCHECKED})
+        while (beans.hasNext()) {
             final T bean = (T) beans.nextHippoBean();
             if (bean != null) {
                 retval.add(bean);
@@ -178,13 +281,47 @@ public abstract class BaseRestResource extends AbstractResource {
         return retval;
     }
 
+    /**
+     * Executes query and converts all resulting beans into their REST representation.
+     *
+     * @param context   rest context
+     * @param query     query to execute
+     * @param converter bean converter
+     * @param <T>       type of the beans
+     * @param <R>       type of the REST representations
+     * @return converted beans, in query result order
+     * @throws QueryException when query fails
+     * @see BeanPopulator
+     */
+    protected <T extends HippoBean, R> List<R> populateBeans(final RestContext context, final HstQuery query,
+                                                             final BeanConverter<T, R> converter) throws QueryException {
+        return populateBeans(context, query.execute(), converter);
+    }
+
+    /**
+     * Converts all beans of a query result (page) into their REST representation.
+     *
+     * @param context   rest context
+     * @param result    query result
+     * @param converter bean converter
+     * @param <T>       type of the beans
+     * @param <R>       type of the REST representations
+     * @return converted beans, in query result order
+     * @see BeanPopulator
+     */
+    protected <T extends HippoBean, R> List<R> populateBeans(final RestContext context, final HstQueryResult result,
+                                                             final BeanConverter<T, R> converter) {
+        return BeanPopulator.populate(context, result, converter);
+    }
+
 
     public String parseHtml(RestContext context, HippoHtmlBean body) {
         if (body == null) {
             return null;
         }
-        final String content = body.getContent();
-        return getContentRewriter().rewrite(content, body.getNode(), context.getRequestContext());
+        final HstRequestContext requestContext = context.getRequestContext();
+        return HtmlRewriteService.getInstance().rewrite(body, body.getNode(), requestContext, requestContext.getResolvedMount().getMount(),
+                getContentRewriter());
     }
 
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.rest;
+
+import javax.annotation.Nullable;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.onehippo.cms7.essentials.components.rest.ctx.RestContext;
+
+/**
+ * Converts a bean into its REST representation.
+ *
+ * @see BeanPopulator
+ *
+ * @version "$Id$"
+ */
+public interface BeanConverter<T extends HippoBean, R> {
+
+    /**
+     * @param context rest context of the current request
+     * @param bean    bean to convert
+     * @return REST representation or null to skip the bean
+     */
+    @Nullable
+    R convert(RestContext context, T bean);
+}
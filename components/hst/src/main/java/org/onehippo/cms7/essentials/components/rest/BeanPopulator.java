@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hippoecm.hst.content.beans.query.HstQueryResult;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+import org.onehippo.cms7.essentials.components.rest.ctx.RestContext;
+
+/**
+ * Converts a page of query results into REST representations in one pass, on the request thread.
+ * <p/>
+ * NOTE: conversions are not parallelized: beans, their JCR session and the request context (which link creation and
+ * HTML rewriting rely on) are bound to the request thread.
+ *
+ * @version "$Id$"
+ */
+public final class BeanPopulator {
+
+    private BeanPopulator() {
+    }
+
+    /**
+     * Converts all beans of a query result, preserving order. Beans which are null, or converted to null, are skipped.
+     *
+     * @param context   rest context
+     * @param result    query result
+     * @param converter bean converter
+     * @param <T>       type of the beans
+     * @param <R>       type of the REST representations
+     * @return converted beans
+     */
+    @SuppressWarnings(BaseRestResource.UNCHECKED)
+    public static <T extends HippoBean, R> List<R> populate(final RestContext context, final HstQueryResult result,
+                                                            final BeanConverter<T, R> converter) {
+        final HippoBeanIterator iterator = result.getHippoBeans();
+        final List<R> converted = new ArrayList<>();
+        while (iterator.hasNext()) {
+            final T bean = (T) iterator.nextHippoBean();
+            if (bean != null) {
+                add(converted, converter.convert(context, bean));
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Converts list of beans, preserving order. Beans which are null, or converted to null, are skipped.
+     *
+     * @param context   rest context
+     * @param beans     beans to convert
+     * @param converter bean converter
+     * @param <T>       type of the beans
+     * @param <R>       type of the REST representations
+     * @return converted beans
+     */
+    public static <T extends HippoBean, R> List<R> populate(final RestContext context, final List<T> beans,
+                                                            final BeanConverter<T, R> converter) {
+        final List<R> converted = new ArrayList<>(beans.size());
+        for (T bean : beans) {
+            if (bean != null) {
+                add(converted, converter.convert(context, bean));
+            }
+        }
+        return converted;
+    }
+
+    private static <R> void add(final List<R> converted, final R value) {
+        if (value != null) {
+            converted.add(value);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.rest;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.content.beans.standard.HippoHtmlBean;
+import org.hippoecm.hst.content.rewriter.ContentRewriter;
+import org.hippoecm.hst.content.rewriter.impl.SimpleContentRewriter;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.util.HstRequestUtils;
+import org.onehippo.cms7.essentials.components.cache.ContentChangeAware;
+import org.onehippo.cms7.essentials.components.cache.ContentChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared, thread safe HTML rewriting for REST resources. Rewritten HTML is cached per rewriter (instance), HTML node,
+ * document modification date, mount and (forwarded) request scheme and host, so unchanged content isn't parsed and
+ * rewritten on every call. Entries are evicted when
+ * the document changes (see {@link ContentChangeListener}) and expire after a while, because links to other documents
+ * may change without the document itself being modified.
+ *
+ * @version "$Id$"
+ */
+public final class HtmlRewriteService implements ContentChangeAware {
+
+    public static final int DEFAULT_TTL_MINUTES = 10;
+    public static final int DEFAULT_MAX_SIZE = 5000;
+
+    private static final String LAST_MODIFICATION_DATE = BaseRestResource.LAST_MODIFICATION_DATE;
+    /**
+     * Max. number of ancestors of an HTML node searched for the document modification date (HTML can be nested in compounds)
+     */
+    private static final int MAX_ANCESTORS = 5;
+
+    private static Logger log = LoggerFactory.getLogger(HtmlRewriteService.class);
+    private static final HtmlRewriteService INSTANCE = new HtmlRewriteService();
+
+    static {
+        ContentChangeListener.register(INSTANCE);
+    }
+
+    /**
+     * Rewriter without state, safe to share between threads
+     */
+    private final ContentRewriter<String> defaultRewriter = new SimpleContentRewriter();
+
+    /**
+     * Caches per rewriter: rewriters of the same class may be configured differently. Weak (identity) keys, so
+     * caches of discarded rewriters are dropped.
+     */
+    private final Cache<ContentRewriter<String>, Cache<String, RewrittenHtml>> caches = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private HtmlRewriteService() {
+    }
+
+    public static HtmlRewriteService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rewrites HTML using a shared {@link SimpleContentRewriter}
+     *
+     * @param html        HTML bean
+     * @param contentNode node used to resolve links
+     * @param context     current request context
+     * @param mount       mount links are created for
+     * @return rewritten HTML
+     */
+    @Nullable
+    public String rewrite(final HippoHtmlBean html, final Node contentNode, final HstRequestContext context, final Mount mount) {
+        return rewrite(html, contentNode, context, mount, defaultRewriter);
+    }
+
+    /**
+     * Rewrites HTML, using cached result if HTML was rewritten before by the same rewriter for the same document
+     * version, mount and request scheme and host
+     *
+     * @param html        HTML bean
+     * @param contentNode node used to resolve links
+     * @param context     current request context
+     * @param mount       mount links are created for
+     * @param rewriter    rewriter to use (must be thread safe), shared rewriter is used if null
+     * @return rewritten HTML
+     */
+    @Nullable
+    public String rewrite(final HippoHtmlBean html, final Node contentNode, final HstRequestContext context, final Mount mount,
+                          @Nullable final ContentRewriter<String> rewriter) {
+        if (rewriter == null) {
+            return rewrite(html, contentNode, context, mount, defaultRewriter);
+        }
+        final String key = createKey(html, contentNode, context, mount);
+        final Cache<String, RewrittenHtml> cache = key == null || context.getSubject() != null ? null : getCache(rewriter);
+        if (cache == null) {
+            return rewriter.rewrite(html.getContent(), contentNode, context, mount);
+        }
+        final RewrittenHtml cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.html;
+        }
+        final String rewritten = rewriter.rewrite(html.getContent(), contentNode, context, mount);
+        if (rewritten != null) {
+            cache.put(key, new RewrittenHtml(html.getPath(), rewritten));
+        }
+        return rewritten;
+    }
+
+    @Nullable
+    private Cache<String, RewrittenHtml> getCache(final ContentRewriter<String> rewriter) {
+        try {
+            return caches.get(rewriter, new Callable<Cache<String, RewrittenHtml>>() {
+                @Override
+                public Cache<String, RewrittenHtml> call() {
+                    return CacheBuilder.newBuilder()
+                            .expireAfterWrite(DEFAULT_TTL_MINUTES, TimeUnit.MINUTES)
+                            .maximumSize(DEFAULT_MAX_SIZE)
+                            .build();
+                }
+            });
+        } catch (ExecutionException e) {
+            log.error("Error accessing rewrite cache", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String createKey(final HippoHtmlBean html, final Node contentNode, final HstRequestContext context, final Mount mount) {
+        try {
+            final Node node = html.getNode();
+            final String modified = getLastModified(node);
+            if (modified == null) {
+                return null;
+            }
+            // fully qualified links depend on scheme and host of the (forwarded) request:
+            final HttpServletRequest request = context.getServletRequest();
+            final String origin = request == null ? "" : HstRequestUtils.getFarthestRequestScheme(request) + "://"
+                    + HstRequestUtils.getFarthestRequestHost(request);
+            return node.getIdentifier() + '|' + modified + '|' + contentNode.getIdentifier() + '|' + mount.getIdentifier()
+                    + (mount.isPreview() ? ":preview" : ":live") + '|' + origin;
+        } catch (RepositoryException e) {
+            log.debug("Cannot create rewrite cache key", e);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getLastModified(final Node node) throws RepositoryException {
+        Node current = node;
+        for (int i = 0; i <= MAX_ANCESTORS && current.getDepth() > 0; i++) {
+            if (current.hasProperty(LAST_MODIFICATION_DATE)) {
+                return current.getProperty(LAST_MODIFICATION_DATE).getString();
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    @Override
+    public void invalidate(final String path) {
+        for (Cache<String, RewrittenHtml> cache : caches.asMap().values()) {
+            for (Map.Entry<String, RewrittenHtml> entry : cache.asMap().entrySet()) {
+                if (ContentChangeListener.isAffected(path, entry.getValue().path)) {
+                    cache.invalidate(entry.getKey());
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        caches.invalidateAll();
+    }
+
+    private static final class RewrittenHtml {
+
+        private final String path;
+        private final String html;
+
+        private RewrittenHtml(final String path, final String html) {
+            this.path = path;
+            this.html = html;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.util.HstRequestUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of links (URLs) created for REST representations, like the mount link of {@code RestLink}: REST feeds
+ * otherwise create the same {@link HstLink}s for every item of every page. Links are cached per path and mount
+ * (and, for fully qualified links, the scheme and host HST creates them for: the forwarded ones, if any), and expire
+ * after a while.
+ *
+ * @version "$Id$"
+ */
+public final class RestLinkCache {
+
+    public static final int DEFAULT_TTL_MINUTES = 30;
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final RestLinkCache INSTANCE = new RestLinkCache();
+
+    private final Cache<String, String> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(DEFAULT_TTL_MINUTES, TimeUnit.MINUTES)
+            .maximumSize(DEFAULT_MAX_SIZE)
+            .build();
+
+    private RestLinkCache() {
+    }
+
+    public static RestLinkCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns link of a repository (or sitemap) path for the mount of current request
+     *
+     * @param context        current request context
+     * @param path           path to create link for
+     * @param fullyQualified create fully qualified URL
+     * @return URL
+     */
+    @Nullable
+    public String getPathLink(final HstRequestContext context, final String path, final boolean fullyQualified) {
+        final String key = createKey(context, path, fullyQualified);
+        final String cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final HstLink link = context.getHstLinkCreator().create(path, context.getResolvedMount().getMount());
+        if (link == null) {
+            return null;
+        }
+        final String url = link.toUrlForm(context, fullyQualified);
+        if (url != null && context.getSubject() == null) {
+            cache.put(key, url);
+        }
+        return url;
+    }
+
+    private static String createKey(final HstRequestContext context, final String path, final boolean fullyQualified) {
+        final Mount mount = context.getResolvedMount().getMount();
+        final StringBuilder key = new StringBuilder(path).append('|').append(mount.getIdentifier())
+                .append(mount.isPreview() ? ":preview" : ":live");
+        if (fullyQualified) {
+            final HttpServletRequest request = context.getServletRequest();
+            key.append('|').append(HstRequestUtils.getFarthestRequestScheme(request)).append("://")
+                    .append(HstRequestUtils.getFarthestRequestHost(request));
+        }
+        return key.toString();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+
+/**
+ * Writes a page of query results to the response one bean at a time, while the query iterator advances. Unlike
+ * marshalling a {@code Pageable}, memory usage doesn't grow with page size. Output has the same structure as a
+ * marshalled {@code Pageable}: paging attributes and an {@code items} list. Beans are written as JSON by the
+ * JAX-RS provider registered for the bean type (the one used for non streamed responses), or as XML by JAXB.
+ * Beans which are not an instance of the bean type are skipped.
+ *
+ * @version "$Id$"
+ */
+public class StreamingPageWriter<T extends HippoBean> implements StreamingOutput {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final Map<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>();
+    private static final String ENCODING = "UTF-8";
+    private static final int FLUSH_INTERVAL = 50;
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private final HippoBeanIterator beans;
+    private final Class<T> beanClass;
+    private final long total;
+    private final int currentPage;
+    private final int pageSize;
+    private final MediaType mediaType;
+    private final Providers providers;
+
+    /**
+     * @param beans       beans of the (paged) query result
+     * @param beanClass   bean type, beans of other types are skipped
+     * @param total       total number of results
+     * @param currentPage current page
+     * @param pageSize    page size
+     * @param mediaType   negotiated media type: XML or JSON
+     * @param providers   JAX-RS providers of the request, used to write JSON
+     */
+    public StreamingPageWriter(final HippoBeanIterator beans, final Class<T> beanClass, final long total,
+                               final int currentPage, final int pageSize, final MediaType mediaType, final Providers providers) {
+        this.beans = beans;
+        this.beanClass = beanClass;
+        this.total = total;
+        this.currentPage = currentPage;
+        this.pageSize = pageSize;
+        this.mediaType = mediaType;
+        this.providers = providers;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException, WebApplicationException {
+        if (MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType)) {
+            writeXml(output);
+        } else {
+            writeJson(output);
+        }
+    }
+
+    private long getTotalPages() {
+        return pageSize <= 0 ? 0 : (total + pageSize - 1) / pageSize;
+    }
+
+    private void writeJson(final OutputStream output) throws IOException {
+        final MessageBodyWriter<T> writer = providers.getMessageBodyWriter(beanClass, beanClass, NO_ANNOTATIONS, mediaType);
+        if (writer == null) {
+            throw new WebApplicationException(Response.Status.NOT_ACCEPTABLE);
+        }
+        final MetadataMap<String, Object> headers = new MetadataMap<>();
+        // paging attributes are numbers only, no need for a JSON generator:
+        writeText(output, "{\"total\":" + total + ",\"currentPage\":" + currentPage + ",\"pageSize\":" + pageSize
+                + ",\"totalPages\":" + getTotalPages() + ",\"items\":[");
+        int count = 0;
+        while (beans.hasNext()) {
+            final HippoBean bean = beans.nextHippoBean();
+            if (!beanClass.isInstance(bean)) {
+                continue;
+            }
+            if (count > 0) {
+                writeText(output, ",");
+            }
+            writer.writeTo(beanClass.cast(bean), beanClass, beanClass, NO_ANNOTATIONS, mediaType, headers, output);
+            if (++count % FLUSH_INTERVAL == 0) {
+                output.flush();
+            }
+        }
+        writeText(output, "]}");
+        output.flush();
+    }
+
+    private static void writeText(final OutputStream output, final String text) throws IOException {
+        output.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeXml(final OutputStream output) throws IOException {
+        try {
+            final Marshaller marshaller = getJaxbContext(beanClass).createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, ENCODING);
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeStartElement("pageable");
+            writer.writeAttribute("total", String.valueOf(total));
+            writer.writeAttribute("currentPage", String.valueOf(currentPage));
+            writer.writeAttribute("pageSize", String.valueOf(pageSize));
+            writer.writeAttribute("totalPages", String.valueOf(getTotalPages()));
+            final QName itemName = new QName("items");
+            int count = 0;
+            while (beans.hasNext()) {
+                final HippoBean bean = beans.nextHippoBean();
+                if (!beanClass.isInstance(bean)) {
+                    continue;
+                }
+                marshaller.marshal(new JAXBElement<>(itemName, beanClass, beanClass.cast(bean)), writer);
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (JAXBException | XMLStreamException e) {
+            throw new IOException("Error writing XML page", e);
+        }
+    }
+
+    private static JAXBContext getJaxbContext(final Class<?> clazz) throws JAXBException {
+        JAXBContext context = JAXB_CONTEXTS.get(clazz);
+        if (context == null) {
+            context = JAXBContext.newInstance(clazz);
+            JAXB_CONTEXTS.put(clazz, context);
+        }
+        return context;
+    }
+}
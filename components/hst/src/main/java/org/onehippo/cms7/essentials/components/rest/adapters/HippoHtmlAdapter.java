@@ -20,9 +20,8 @@ import javax.xml.bind.annotation.adapters.XmlAdapter;
 
 import org.hippoecm.hst.container.RequestContextProvider;
 import org.hippoecm.hst.content.beans.standard.HippoHtml;
-import org.hippoecm.hst.content.rewriter.ContentRewriter;
-import org.hippoecm.hst.content.rewriter.impl.SimpleContentRewriter;
 import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.rest.HtmlRewriteService;
 
 public class HippoHtmlAdapter extends XmlAdapter<String, HippoHtml> {
 
@@ -32,8 +31,7 @@ public class HippoHtmlAdapter extends XmlAdapter<String, HippoHtml> {
             return null;
         }
         final HstRequestContext context = RequestContextProvider.get();
-        final ContentRewriter<String> contentRewriter = new SimpleContentRewriter();
-        final String rewrite = contentRewriter.rewrite(html.getContent(), html.getNode().getParent(), context, context.getResolvedMount().getMount());
+        final String rewrite = HtmlRewriteService.getInstance().rewrite(html, html.getNode().getParent(), context, context.getResolvedMount().getMount());
         return "<![CDATA[" + rewrite + "]]>";
     }
 
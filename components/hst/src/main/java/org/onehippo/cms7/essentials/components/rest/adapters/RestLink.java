@@ -21,6 +21,7 @@ import javax.xml.bind.annotation.XmlRootElement;
 import org.hippoecm.hst.container.RequestContextProvider;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
 import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.rest.RestLinkCache;
 
 /**
  * @version "$Id$"
@@ -48,7 +49,7 @@ public class RestLink {
 
     public String getLink() {
         final HstRequestContext context = RequestContextProvider.get();
-        return context.getHstLinkCreator().create("/", context.getResolvedMount().getMount()).toUrlForm(context, true);
+        return RestLinkCache.getInstance().getPathLink(context, "/", true);
     }
 
 
@@ -47,6 +47,8 @@ public class DefaultRestContext implements RestContext {
     private int page;
     private boolean absolutePath;
     private String scope;
+    private HippoFolderBean galleryFolder;
+    private boolean galleryFolderLoaded;
 
 
     public DefaultRestContext(final BaseRestResource resource, final HttpServletRequest request) {
@@ -132,7 +134,20 @@ public class DefaultRestContext implements RestContext {
         return resource;
     }
 
+    /**
+     * Returns gallery root folder, which is looked up once per context.
+     *
+     * @return gallery folder or null if not found
+     */
     public HippoFolderBean getGalleryFolder() {
+        if (!galleryFolderLoaded) {
+            galleryFolder = loadGalleryFolder();
+            galleryFolderLoaded = true;
+        }
+        return galleryFolder;
+    }
+
+    private HippoFolderBean loadGalleryFolder() {
         try {
             final ObjectConverter objectConverter = resource.getObjectConverter(context);
             HippoBean gallery = (HippoBean) objectConverter.getObject(context.getSession(), "/content/gallery");
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.base.Strings;
+
+/**
+ * Immutable, in-memory prefix index of suggestion terms (e.g. document titles and tags). Terms are kept as a sorted
+ * array of normalized (lower cased) keys, so all terms sharing a prefix form a contiguous range, found by binary
+ * search. Within that range, terms occurring most often are suggested first.
+ *
+ * @version "$Id$"
+ */
+public final class SuggestionIndex {
+
+    public static final SuggestionIndex EMPTY = new Builder().build();
+
+    private final String[] keys;
+    private final String[] terms;
+    private final int[] weights;
+
+    private SuggestionIndex(final String[] keys, final String[] terms, final int[] weights) {
+        this.keys = keys;
+        this.terms = terms;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns terms starting with given prefix (case insensitive), most frequent terms first
+     *
+     * @param prefix prefix typed by user
+     * @param limit  max. number of suggestions
+     * @return suggestions, empty list if none found
+     */
+    @Nonnull
+    public List<String> suggest(final String prefix, final int limit) {
+        final String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final int position = Arrays.binarySearch(keys, key);
+        int index = position < 0 ? -(position + 1) : position;
+        // indexes of best matches, ordered by weight (highest first)
+        final int[] best = new int[limit];
+        int found = 0;
+        while (index < keys.length && keys[index].startsWith(key)) {
+            if (found < limit || weights[index] > weights[best[found - 1]]) {
+                int insertAt = found < limit ? found++ : limit - 1;
+                while (insertAt > 0 && weights[best[insertAt - 1]] < weights[index]) {
+                    best[insertAt] = best[insertAt - 1];
+                    insertAt--;
+                }
+                best[insertAt] = index;
+            }
+            index++;
+        }
+        final List<String> suggestions = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            suggestions.add(terms[best[i]]);
+        }
+        return suggestions;
+    }
+
+    /**
+     * @return number of distinct terms
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    private static String normalize(final String term) {
+        return Strings.nullToEmpty(term).trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Collects terms and builds an index. NOTE: not thread safe.
+     */
+    public static final class Builder {
+
+        private final Map<String, String> terms = new HashMap<>();
+        private final Map<String, Integer> weights = new HashMap<>();
+
+        /**
+         * Adds a term, adding the same (case insensitive) term again increases its weight
+         *
+         * @param term term to add, ignored if empty
+         * @return this builder
+         */
+        public Builder add(final String term) {
+            final String key = normalize(term);
+            if (key.isEmpty()) {
+                return this;
+            }
+            final Integer weight = weights.get(key);
+            if (weight == null) {
+                terms.put(key, term.trim());
+                weights.put(key, 1);
+            } else {
+                weights.put(key, weight + 1);
+            }
+            return this;
+        }
+
+        public SuggestionIndex build() {
+            final String[] keys = terms.keySet().toArray(new String[terms.size()]);
+            Arrays.sort(keys);
+            final String[] values = new String[keys.length];
+            final int[] counts = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = terms.get(keys[i]);
+                counts[i] = weights.get(keys[i]);
+            }
+            return new SuggestionIndex(keys, values, counts);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.suggest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.onehippo.cms7.essentials.components.cache.ContentChangeAware;
+import org.onehippo.cms7.essentials.components.cache.ContentChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared suggestion indexes, one per scope and configuration. An index is built (by a single request) when first
+ * needed and dropped when content within its scope changes (see {@link ContentChangeListener}), to be rebuilt on next
+ * lookup. Indexes also expire after a while, in case content change events are not received.
+ *
+ * @version "$Id$"
+ */
+public final class SuggestionIndexCache implements ContentChangeAware {
+
+    public static final int DEFAULT_TTL_MINUTES = 60;
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static Logger log = LoggerFactory.getLogger(SuggestionIndexCache.class);
+    private static final SuggestionIndexCache INSTANCE = new SuggestionIndexCache();
+
+    static {
+        ContentChangeListener.register(INSTANCE);
+    }
+
+    private final Cache<Key, SuggestionIndex> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(DEFAULT_TTL_MINUTES, TimeUnit.MINUTES)
+            .maximumSize(DEFAULT_MAX_SIZE)
+            .build();
+
+    private SuggestionIndexCache() {
+    }
+
+    public static SuggestionIndexCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns index for given key, building it if not available
+     *
+     * @param key    index key
+     * @param loader builds the index, invoked at most once (concurrently) for the same key
+     * @return suggestion index, empty index if it couldn't be built
+     */
+    public SuggestionIndex get(final Key key, final Callable<SuggestionIndex> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            log.error("Error building suggestion index for {}", key, e.getCause());
+        }
+        return SuggestionIndex.EMPTY;
+    }
+
+    @Override
+    public void invalidate(final String path) {
+        for (Key key : cache.asMap().keySet()) {
+            if (key.isAffectedBy(path)) {
+                log.debug("Invalidating suggestion index {}", key);
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Identifies a suggestion index: scope, (comma separated) document types and fields it was built from,
+     * and whether it contains preview or live content
+     */
+    public static final class Key {
+
+        private final String scopePath;
+        private final String documentTypes;
+        private final String fields;
+        private final boolean preview;
+
+        public Key(final String scopePath, final String documentTypes, final String fields, final boolean preview) {
+            this.scopePath = scopePath;
+            this.documentTypes = documentTypes;
+            this.fields = fields;
+            this.preview = preview;
+        }
+
+        public boolean isAffectedBy(final String path) {
+            return ContentChangeListener.isAffected(path, scopePath);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return preview == other.preview
+                    && Objects.equal(scopePath, other.scopePath)
+                    && Objects.equal(documentTypes, other.documentTypes)
+                    && Objects.equal(fields, other.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(scopePath, documentTypes, fields, preview);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{scopePath='" + scopePath + "', documentTypes='" + documentTypes + "', fields='" + fields + "', preview=" + preview + '}';
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.utils;
+
+/**
+ * Source of the current time used by (date filtered) list queries. Can be replaced, e.g. to preview a site
+ * at a certain moment in time.
+ *
+ * @version "$Id$"
+ */
+public interface QueryClock {
+
+    /**
+     * Clock backed by {@link System#currentTimeMillis()}
+     */
+    QueryClock SYSTEM = new QueryClock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * @return current time in milliseconds since epoch
+     */
+    long currentTimeMillis();
+}
@@ -20,7 +20,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,6 +53,7 @@ public final class SiteUtils {
     private static final Logger log = LoggerFactory.getLogger(SiteUtils.class);
     public static final int DEFAULT_PAGE = 1;
     public static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String REQUEST_ATTR_PARAMETER_SNAPSHOT = SiteUtils.class.getName() + ".parameters";
 
     /**
      * Try to determine the site-relative repository path of a bean, given a request context.
@@ -96,7 +99,8 @@ public final class SiteUtils {
 
 
     /**
-     * Gets parameter in following order: namespaced parameter,  public request parameter, component parameter
+     * Gets parameter in following order: namespaced parameter,  public request parameter, component parameter.
+     * Parameters are resolved once per component invocation, subsequent calls return the same value.
      *
      * @param parameterName name of the parameter
      * @param request       instance of HstRequest
@@ -105,7 +109,30 @@ public final class SiteUtils {
      */
     @Nullable
     public static String getAnyParameter(final String parameterName, final HstRequest request, final BaseHstComponent component) {
+        final Map<String, String> snapshot = getParameterSnapshot(request);
+        if (snapshot.containsKey(parameterName)) {
+            return snapshot.get(parameterName);
+        }
+        final String value = resolveAnyParameter(parameterName, request, component);
+        snapshot.put(parameterName, value);
+        return value;
+    }
+
+    /**
+     * Returns parameters resolved so far for the component (window) of given request. HstRequest attributes are
+     * scoped to a component window, so values resolved for one component are never seen by another one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> getParameterSnapshot(final HstRequest request) {
+        Map<String, String> snapshot = (Map<String, String>) request.getAttribute(REQUEST_ATTR_PARAMETER_SNAPSHOT);
+        if (snapshot == null) {
+            snapshot = new HashMap<>();
+            request.setAttribute(REQUEST_ATTR_PARAMETER_SNAPSHOT, snapshot);
+        }
+        return snapshot;
+    }
 
+    private static String resolveAnyParameter(final String parameterName, final HstRequest request, final BaseHstComponent component) {
         String value = request.getParameter(parameterName);
         if (!Strings.isNullOrEmpty(value)) {
             return value;
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.utils;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import org.hippoecm.repository.util.DateTools;
+
+import com.google.common.base.Strings;
+
+/**
+ * Granularity of "now" used in date filters. All requests within the same bucket use the same moment in time,
+ * so date filtered queries produce identical query statements, which can be cached.
+ *
+ * @version "$Id$"
+ */
+public enum TimeBucket {
+
+    MINUTE(DateTools.Resolution.MILLISECOND),
+    HOUR(DateTools.Resolution.HOUR),
+    DAY(DateTools.Resolution.DAY);
+
+    private final DateTools.Resolution resolution;
+
+    TimeBucket(final DateTools.Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    /**
+     * @return date resolution to use in range filters for this bucket
+     */
+    public DateTools.Resolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Returns start of the bucket given time falls in
+     *
+     * @param timeMillis time in milliseconds since epoch
+     * @return calendar truncated to this bucket
+     */
+    public Calendar floor(final long timeMillis) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timeMillis);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.set(Calendar.SECOND, 0);
+        if (this == MINUTE) {
+            return calendar;
+        }
+        calendar.set(Calendar.MINUTE, 0);
+        if (this == HOUR) {
+            return calendar;
+        }
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        return calendar;
+    }
+
+    /**
+     * Parses (component parameter) value, case insensitive
+     *
+     * @param value        bucket name, e.g. {@code hour}
+     * @param defaultValue bucket to use if value is empty or invalid
+     * @return time bucket
+     */
+    public static TimeBucket fromString(final String value, final TimeBucket defaultValue) {
+        if (Strings.isNullOrEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.components.utils.query;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+
+import org.hippoecm.hst.content.beans.manager.ObjectConverter;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.onehippo.cms7.essentials.components.utils.SiteUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Resolves (comma separated) primary node types to annotated bean classes. Resolved classes are shared between
+ * requests: the (string) configuration of a component is split and looked up through the object converter only
+ * once. All entries are dropped when object converter changes (e.g. after bean classes were reloaded).
+ *
+ * @version "$Id$"
+ */
+public final class DocumentTypeResolver {
+
+    private static Logger log = LoggerFactory.getLogger(DocumentTypeResolver.class);
+
+    /**
+     * Upper bound of cached entries, document types are expected to be (a limited set of) configuration values
+     */
+    private static final int MAX_ENTRIES = 1000;
+
+    private static volatile Resolutions resolutions = new Resolutions(null);
+
+    private DocumentTypeResolver() {
+    }
+
+    /**
+     * Returns bean classes for comma separated primary node types. Types which can't be resolved are skipped.
+     *
+     * @param objectConverter object converter of the current request
+     * @param documentTypes   comma separated primary node types, e.g. {@code myproject:news, myproject:event}
+     * @return immutable list of bean classes, empty if none could be resolved
+     */
+    @Nonnull
+    public static List<Class<? extends HippoBean>> resolve(final ObjectConverter objectConverter, final String documentTypes) {
+        if (Strings.isNullOrEmpty(documentTypes)) {
+            return ImmutableList.of();
+        }
+        Resolutions current = resolutions;
+        if (current.objectConverter != objectConverter) {
+            log.debug("Object converter changed, dropping resolved document types");
+            current = new Resolutions(objectConverter);
+            resolutions = current;
+        }
+        List<Class<? extends HippoBean>> classes = current.classes.get(documentTypes);
+        if (classes == null) {
+            classes = resolveClasses(objectConverter, SiteUtils.parseCommaSeparatedValue(documentTypes));
+            if (current.classes.size() >= MAX_ENTRIES) {
+                current.classes.clear();
+            }
+            current.classes.put(documentTypes, classes);
+        }
+        return classes;
+    }
+
+    /**
+     * Returns bean classes for given primary node types. Types which can't be resolved are skipped.
+     *
+     * @param objectConverter  object converter of the current request
+     * @param primaryNodeTypes primary node types
+     * @return immutable list of bean classes, empty if none could be resolved
+     */
+    @Nonnull
+    public static List<Class<? extends HippoBean>> resolve(final ObjectConverter objectConverter, final String... primaryNodeTypes) {
+        if (primaryNodeTypes == null || primaryNodeTypes.length == 0) {
+            return ImmutableList.of();
+        }
+        return resolve(objectConverter, Joiner.on(',').skipNulls().join(primaryNodeTypes));
+    }
+
+    private static List<Class<? extends HippoBean>> resolveClasses(final ObjectConverter objectConverter, final String[] primaryNodeTypes) {
+        final ImmutableList.Builder<Class<? extends HippoBean>> builder = ImmutableList.builder();
+        int typeCounter = 0;
+        for (String primaryNodeType : primaryNodeTypes) {
+            final Class<? extends HippoBean> clazz = objectConverter.getAnnotatedClassFor(primaryNodeType);
+            if (clazz != null) {
+                builder.add(clazz);
+                typeCounter++;
+            }
+        }
+        if (typeCounter != primaryNodeTypes.length) {
+            log.warn("Couldn't resolve all primary node types through object converter: {}", (Object) primaryNodeTypes);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolved classes, bound to the object converter they were resolved with
+     */
+    private static final class Resolutions {
+
+        private final ObjectConverter objectConverter;
+        private final ConcurrentMap<String, List<Class<? extends HippoBean>>> classes = new ConcurrentHashMap<>();
+
+        private Resolutions(final ObjectConverter objectConverter) {
+            this.objectConverter = objectConverter;
+        }
+    }
+}
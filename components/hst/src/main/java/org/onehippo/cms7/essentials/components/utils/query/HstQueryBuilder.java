@@ -29,15 +29,19 @@ import org.hippoecm.hst.component.support.bean.BaseHstComponent;
 import org.hippoecm.hst.content.beans.manager.ObjectConverter;
 import org.hippoecm.hst.content.beans.query.HstQuery;
 import org.hippoecm.hst.content.beans.query.HstQueryManager;
+import org.hippoecm.hst.content.beans.query.exceptions.FilterException;
 import org.hippoecm.hst.content.beans.query.exceptions.QueryException;
 import org.hippoecm.hst.content.beans.query.filter.Filter;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.cms7.essentials.components.paging.PageCursor;
 import org.onehippo.cms7.essentials.components.utils.SiteUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Strings;
+
 /**
  * HstQuery wrapper
  *
@@ -54,6 +58,9 @@ public class HstQueryBuilder implements QueryBuilder {
     private int size = SiteUtils.DEFAULT_PAGE_SIZE;
     private int page = SiteUtils.DEFAULT_PAGE;
     private boolean includeSubtypes;
+    private PageCursor cursor;
+    private String cursorField;
+    private boolean cursorAscending;
 
     public HstQueryBuilder(final BaseHstComponent component, final HstRequest request) {
         this.request = request;
@@ -132,21 +139,17 @@ public class HstQueryBuilder implements QueryBuilder {
         if (mappings == null) {
             mappings = new ArrayList<>();
         }
-        final HstRequestContext context = request.getRequestContext();
-        final ObjectConverter objectConverter = context.getContentBeansTool().getObjectConverter();
-        int typeCounter = 0;
-        for (String primaryNodeType : primaryNodeTypes) {
-            final Class<? extends HippoBean> clazz = objectConverter.getAnnotatedClassFor(primaryNodeType);
-            if (clazz != null) {
-                mappings.add(clazz);
-                typeCounter++;
-            }
+        mappings.addAll(DocumentTypeResolver.resolve(getObjectConverter(), primaryNodeTypes));
+        return this;
+    }
 
+    @Override
+    @Nonnull
+    public final HstQueryBuilder documentTypes(final String documentTypes) {
+        if (mappings == null) {
+            mappings = new ArrayList<>();
         }
-        if (typeCounter != primaryNodeTypes.length) {
-            log.warn("Couldn't resolve all primary node types through object converter: {}", primaryNodeTypes);
-        }
-
+        mappings.addAll(DocumentTypeResolver.resolve(getObjectConverter(), documentTypes));
         return this;
     }
 
@@ -164,6 +167,15 @@ public class HstQueryBuilder implements QueryBuilder {
         return this;
     }
 
+    @Override
+    @Nonnull
+    public HstQueryBuilder after(@Nullable final PageCursor cursor, final String sortField, final boolean ascending) {
+        this.cursor = cursor;
+        this.cursorField = sortField;
+        this.cursorAscending = ascending;
+        return this;
+    }
+
     @Override
     @Nullable
     public HstQuery build() {
@@ -175,13 +187,22 @@ public class HstQueryBuilder implements QueryBuilder {
         try {
             @SuppressWarnings("unchecked")
             final Class<? extends HippoBean>[] classes = mappings.toArray(new Class[mappings.size()]);
-            @SuppressWarnings("unchecked")
-            final HstQuery query = manager.createQuery(scope, classes);
+            final HstQuery query = manager.createQuery(scope, includeSubtypes, classes);
             query.setLimit(size);
-            query.setOffset(size * (page - 1));
-            if (filters != null && filters.size() > 0) {
+            final List<Filter> queryFilters = new ArrayList<>();
+            if (filters != null) {
+                queryFilters.addAll(filters);
+            }
+            if (cursor != null && !Strings.isNullOrEmpty(cursorField)) {
+                // keyset pagination: no need to skip previous pages
+                query.setOffset(0);
+                queryFilters.add(createCursorFilter(query));
+            } else {
+                query.setOffset(size * (page - 1));
+            }
+            if (queryFilters.size() > 0) {
                 final Filter root = query.createFilter();
-                for (Filter filter : filters) {
+                for (Filter filter : queryFilters) {
                     root.addAndFilter(filter);
                 }
                 query.setFilter(root);
@@ -195,6 +216,31 @@ public class HstQueryBuilder implements QueryBuilder {
     }
 
 
+    /**
+     * Creates range filter which matches all items sorted after the cursor:
+     * {@code (sortField > value) OR (sortField = value AND identifier > cursorIdentifier)} for ascending order.
+     * NOTE: query must be ordered on sort field and {@link PageCursor#IDENTIFIER_FIELD}
+     */
+    private Filter createCursorFilter(final HstQuery query) throws FilterException {
+        final Filter rangeFilter = query.createFilter();
+        final Filter afterValue = query.createFilter();
+        final Filter sameValue = query.createFilter();
+        sameValue.addEqualTo(cursorField, cursor.getValue());
+        if (cursorAscending) {
+            afterValue.addGreaterThan(cursorField, cursor.getValue());
+        } else {
+            afterValue.addLessThan(cursorField, cursor.getValue());
+        }
+        sameValue.addGreaterThan(PageCursor.IDENTIFIER_FIELD, cursor.getIdentifier());
+        rangeFilter.addOrFilter(afterValue);
+        rangeFilter.addOrFilter(sameValue);
+        return rangeFilter;
+    }
+
+    private ObjectConverter getObjectConverter() {
+        return request.getRequestContext().getContentBeansTool().getObjectConverter();
+    }
+
     @Nullable
     @Override
     public HippoBean getScope() {
@@ -22,6 +22,7 @@ import javax.annotation.Nullable;
 import org.hippoecm.hst.content.beans.query.HstQuery;
 import org.hippoecm.hst.content.beans.query.filter.Filter;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.onehippo.cms7.essentials.components.paging.PageCursor;
 
 /**
  * @version "$Id$"
@@ -56,12 +57,43 @@ public interface QueryBuilder {
     @Nonnull
     HstQueryBuilder documents(String... primaryNodeTypes);
 
+    /**
+     * Adds document types from a (component parameter) value. Resolved bean classes are cached, so this is
+     * preferred over splitting the value and calling {@link #documents(String...)}.
+     *
+     * @param documentTypes comma separated primary node types
+     * @return this builder
+     */
+    @Nonnull
+    HstQueryBuilder documentTypes(String documentTypes);
+
+    /**
+     * Also match subtypes of the configured document types.
+     *
+     * @return this builder
+     */
     @Nonnull
     HstQueryBuilder includeSubtypes();
 
+    /**
+     * Only match exactly the configured document types (default).
+     *
+     * @return this builder
+     */
     @Nonnull
     HstQueryBuilder excludeSubtypes();
 
+    /**
+     * Use keyset pagination: only fetch items sorted after given cursor (offset is ignored).
+     *
+     * @param cursor    cursor of the last item of previous page, null to use offset pagination
+     * @param sortField field query is sorted on
+     * @param ascending sort order
+     * @return this builder
+     */
+    @Nonnull
+    HstQueryBuilder after(PageCursor cursor, String sortField, boolean ascending);
+
     @Nullable
     HstQuery build();
 
@@ -22,8 +22,8 @@ import org.onehippo.cms7.essentials.dashboard.model.PluginDescriptor;
 import org.onehippo.cms7.essentials.dashboard.model.Repository;
 import org.onehippo.cms7.essentials.dashboard.packaging.InstructionPackage;
 import org.onehippo.cms7.essentials.dashboard.packaging.TemplateSupportInstructionPackage;
-import org.onehippo.cms7.essentials.dashboard.utils.DependencyUtils;
 import org.onehippo.cms7.essentials.dashboard.utils.GlobalUtils;
+import org.onehippo.cms7.essentials.dashboard.utils.PomEditSession;
 import org.onehippo.cms7.essentials.dashboard.utils.inject.ApplicationModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,8 +57,21 @@ public class Plugin {
     }
 
     public void install() throws PluginException {
-        installRepositories();
-        installDependencies();
+        // collect all pom changes, so each pom is written once:
+        final PomEditSession poms = new PomEditSession(context);
+        PluginException failure = null;
+        try {
+            installRepositories(poms);
+            installDependencies(poms);
+        } catch (PluginException e) {
+            failure = e;
+        }
+        if (!poms.commit() && failure == null) {
+            failure = new PluginException("Not all pom files could be written");
+        }
+        if (failure != null) {
+            throw failure;
+        }
 
         stateMachine.install();
     }
@@ -107,11 +120,11 @@ public class Plugin {
         return descriptor != null ? descriptor.getName() : "unknown";
     }
 
-    private void installRepositories() throws PluginException {
+    private void installRepositories(final PomEditSession poms) throws PluginException {
         final StringBuilder builder = new StringBuilder();
 
         for (Repository repository : descriptor.getRepositories()) {
-            if (!DependencyUtils.addRepository(context, repository)) {
+            if (!poms.addRepository(repository)) {
                 if (builder.length() == 0) {
                     builder.append("Not all repositories were installed: ");
                 } else {
@@ -126,11 +139,11 @@ public class Plugin {
         }
     }
 
-    private void installDependencies() throws PluginException {
+    private void installDependencies(final PomEditSession poms) throws PluginException {
         final StringBuilder builder = new StringBuilder();
 
         for (EssentialsDependency dependency : descriptor.getDependencies()) {
-            if (!DependencyUtils.addDependency(context, dependency)) {
+            if (!poms.addDependency(dependency)) {
                 if (builder.length() == 0) {
                     builder.append("Not all dependencies were installed: ");
                 } else {
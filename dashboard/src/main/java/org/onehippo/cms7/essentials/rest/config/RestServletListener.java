@@ -19,6 +19,7 @@ package org.onehippo.cms7.essentials.rest.config;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
+import org.onehippo.cms7.essentials.dashboard.utils.JcrSessionPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,6 @@ public class RestServletListener implements ServletContextListener {
 
     @Override
     public void contextDestroyed(final ServletContextEvent servletContextEvent) {
-
+        JcrSessionPool.getInstance().close();
     }
 }
@@ -67,6 +67,8 @@ public interface PluginContext extends Serializable {
      * Returns JCR session for logged in user.
      * <p>NOTE: session is managed by plugin itself, so logout etc. must be done by plugin</p>
      * <p>Sessions will be logout after plugin is unloaded by plugin framework</p>
+     * <p>Default implementation borrows sessions from a session pool: sessions must be released using
+     * {@code GlobalUtils.cleanupSession(session)} instead of {@code session.logout()}</p>
      *
      * @return instance of JCR session, with admin rights
      */
@@ -20,7 +20,6 @@ import java.io.StringReader;
 import java.util.Set;
 
 import javax.inject.Inject;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
@@ -29,6 +28,7 @@ import org.onehippo.cms7.essentials.dashboard.instructions.Instruction;
 import org.onehippo.cms7.essentials.dashboard.instructions.InstructionParser;
 import org.onehippo.cms7.essentials.dashboard.instructions.InstructionSet;
 import org.onehippo.cms7.essentials.dashboard.instructions.Instructions;
+import org.onehippo.cms7.essentials.dashboard.utils.JaxbContextRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
@@ -55,8 +55,7 @@ public class DefaultInstructionParser implements InstructionParser {
             return null;
         }
         try {
-            final JAXBContext context = JAXBContext.newInstance(PluginInstructions.class);
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(PluginInstructions.class);
             final Instructions instructions = (Instructions) unmarshaller.unmarshal(new StringReader(content));
 
             final Set<InstructionSet> instructionSets = instructions.getInstructionSets();
@@ -49,6 +49,7 @@ import org.onehippo.cms7.essentials.dashboard.model.BeanWriterLogEntry;
 import org.onehippo.cms7.essentials.dashboard.utils.BeanWriterUtils;
 import org.onehippo.cms7.essentials.dashboard.utils.EssentialConst;
 import org.onehippo.cms7.essentials.dashboard.utils.GlobalUtils;
+import org.onehippo.cms7.essentials.dashboard.utils.JavaSourceEditSession;
 import org.onehippo.cms7.essentials.dashboard.utils.JavaSourceUtils;
 import org.onehippo.cms7.essentials.dashboard.utils.beansmodel.HippoContentBean;
 import org.onehippo.cms7.essentials.dashboard.utils.beansmodel.HippoContentChildNode;
@@ -181,8 +182,10 @@ public class ContentBeansService {
             if (mySupertypes.contains("hippogallery:relaxed")) {
                 final Path javaClass = createJavaClass(missingBean);
                 JavaSourceUtils.createHippoBean(javaClass, context.beansPackageName(), missingBean.getName(), missingBean.getName());
-                JavaSourceUtils.addExtendsClass(javaClass, HIPPO_GALLERY_IMAGE_SET_CLASS);
-                JavaSourceUtils.addImport(javaClass, EssentialConst.HIPPO_IMAGE_SET_IMPORT);
+                final JavaSourceEditSession session = new JavaSourceEditSession(javaClass);
+                session.addExtendsClass(HIPPO_GALLERY_IMAGE_SET_CLASS);
+                session.addImport(EssentialConst.HIPPO_IMAGE_SET_IMPORT);
+                session.commit();
                 addMethods(missingBean, javaClass, new ArrayList<String>());
             }
         }
@@ -278,16 +281,28 @@ public class ContentBeansService {
     private void createBaseBean(final HippoContentBean bean) {
         final Path javaClass = createJavaClass(bean);
         JavaSourceUtils.createHippoBean(javaClass, context.beansPackageName(), bean.getName(), bean.getName());
-        JavaSourceUtils.addExtendsClass(javaClass, "HippoDocument");
-        JavaSourceUtils.addImport(javaClass, EssentialConst.HIPPO_DOCUMENT_IMPORT);
+        final JavaSourceEditSession session = new JavaSourceEditSession(javaClass);
+        session.addExtendsClass("HippoDocument");
+        session.addImport(EssentialConst.HIPPO_DOCUMENT_IMPORT);
+        session.commit();
     }
 
 
     private void addMethods(final HippoContentBean bean, final Path beanPath, final Collection<String> existing) {
+        final JavaSourceEditSession session = new JavaSourceEditSession(beanPath);
+        try {
+            addMethods(bean, session, existing);
+        } finally {
+            session.commit();
+        }
+    }
+
+    private void addMethods(final HippoContentBean bean, final JavaSourceEditSession session, final Collection<String> existing) {
+        final Path beanPath = session.getPath();
         final List<HippoContentProperty> properties = bean.getProperties();
         for (HippoContentProperty property : properties) {
             final String name = property.getName();
-            if(!hasChange(name, existing, beanPath, property.isMultiple())){
+            if(!hasChange(name, existing, session, property.isMultiple())){
                 continue;
             }
             final String type = property.getType();
@@ -306,7 +321,7 @@ public class ContentBeansService {
                 case "Docbase":
                 case "Text":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodString(beanPath, methodName, name, multiple);
+                    session.addBeanMethodString(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -315,7 +330,7 @@ public class ContentBeansService {
 
                 case "Date":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodCalendar(beanPath, methodName, name, multiple);
+                    session.addBeanMethodCalendar(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -323,7 +338,7 @@ public class ContentBeansService {
                     break;
                 case "Boolean":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodBoolean(beanPath, methodName, name, multiple);
+                    session.addBeanMethodBoolean(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -331,7 +346,7 @@ public class ContentBeansService {
                     break;
                 case "Long":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodLong(beanPath, methodName, name, multiple);
+                    session.addBeanMethodLong(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -339,7 +354,7 @@ public class ContentBeansService {
                     break;
                 case "Double":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodDouble(beanPath, methodName, name, multiple);
+                    session.addBeanMethodDouble(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -348,7 +363,7 @@ public class ContentBeansService {
                 default:
 
                     final String message = String.format("TODO: Beanwriter: Failed to create getter for property: %s of type: %s", property.getName(), type);
-                    JavaSourceUtils.addClassJavaDoc(beanPath, message);
+                    session.addClassJavaDoc(message);
                     log.warn(message);
                     break;
             }
@@ -359,7 +374,7 @@ public class ContentBeansService {
         final List<HippoContentChildNode> children = bean.getChildren();
         for (HippoContentChildNode child : children) {
             final String name = child.getName();
-            if (!hasChange(name, existing, beanPath, child.isMultiple())) {
+            if (!hasChange(name, existing, session, child.isMultiple())) {
                 continue;
             }
             final String type = child.getType();
@@ -374,7 +389,7 @@ public class ContentBeansService {
             switch (type) {
                 case "hippostd:html":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodHippoHtml(beanPath, methodName, name, multiple);
+                    session.addBeanMethodHippoHtml(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -384,11 +399,11 @@ public class ContentBeansService {
                     methodName = GlobalUtils.createMethodName(name);
                     final Path path = extractPath();
                     if (path == null) {
-                        JavaSourceUtils.addBeanMethodImageLink(beanPath, methodName, name, multiple);
+                        session.addBeanMethodImageLink(methodName, name, multiple);
                     } else {
                         final String className = JavaSourceUtils.getClassName(path);
                         final String importName = JavaSourceUtils.getImportName(path);
-                        JavaSourceUtils.addBeanMethodInternalImageSet(beanPath, className, importName, methodName, name, multiple);
+                        session.addBeanMethodInternalImageSet(className, importName, methodName, name, multiple);
                     }
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
@@ -396,7 +411,7 @@ public class ContentBeansService {
                     break;
                 case "hippo:mirror":
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodHippoMirror(beanPath, methodName, name, multiple);
+                    session.addBeanMethodHippoMirror(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -404,7 +419,7 @@ public class ContentBeansService {
                 case "hippogallery:image":
 
                     methodName = GlobalUtils.createMethodName(name);
-                    JavaSourceUtils.addBeanMethodHippoImage(beanPath, methodName, name, multiple);
+                    session.addBeanMethodHippoImage(methodName, name, multiple);
                     existing.add(name);
                     context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                     log.debug(MSG_ADDED_METHOD, methodName);
@@ -421,14 +436,14 @@ public class ContentBeansService {
                                 final String className = JavaSourceUtils.getClassName(myBeanPath);
                                 methodName = GlobalUtils.createMethodName(name);
                                 final String importPath = JavaSourceUtils.getImportName(myBeanPath);
-                                JavaSourceUtils.addBeanMethodInternalType(beanPath, className, importPath, methodName, name, multiple);
+                                session.addBeanMethodInternalType(className, importPath, methodName, name, multiple);
                                 context.addPluginContextData(CONTEXT_BEAN_DATA, new BeanWriterLogEntry(beanPath.toString(), methodName, ActionType.CREATED_METHOD));
                                 return;
                             }
                         }
                     }
                     final String message = String.format("TODO: Beanwriter: Failed to create getter for node type: %s", type);
-                    JavaSourceUtils.addClassJavaDoc(beanPath, message);
+                    session.addClassJavaDoc(message);
                     log.warn(message);
                     break;
             }
@@ -594,8 +609,10 @@ public class ContentBeansService {
         final Path javaClass = createJavaClass(bean);
         JavaSourceUtils.createHippoBean(javaClass, context.beansPackageName(), bean.getName(), bean.getName());
         final String extendsName = FilenameUtils.removeExtension(parentPath.toFile().getName());
-        JavaSourceUtils.addExtendsClass(javaClass, extendsName);
-        JavaSourceUtils.addImport(javaClass, EssentialConst.HIPPO_DOCUMENT_IMPORT);
+        final JavaSourceEditSession session = new JavaSourceEditSession(javaClass);
+        session.addExtendsClass(extendsName);
+        session.addImport(EssentialConst.HIPPO_DOCUMENT_IMPORT);
+        session.commit();
 
     }
 
@@ -611,10 +628,10 @@ public class ContentBeansService {
         return path;
     }
 
-    private boolean hasChange(final String name, final Collection<String> existing, final Path beanPath, final boolean multiple){
+    private boolean hasChange(final String name, final Collection<String> existing, final JavaSourceEditSession session, final boolean multiple){
         if (existing.contains(name)) {
             log.debug("Property already exists {}. Checking if method signature has changed e.g. single value to multiple", name);
-            final ExistingMethodsVisitor methodCollection = JavaSourceUtils.getMethodCollection(beanPath);
+            final ExistingMethodsVisitor methodCollection = JavaSourceUtils.getMethodCollection(session.getUnit());
             final List<EssentialsGeneratedMethod> generatedMethods = methodCollection.getGeneratedMethods();
             for (EssentialsGeneratedMethod generatedMethod : generatedMethods) {
                 final String internalName = generatedMethod.getInternalName();
@@ -622,7 +639,7 @@ public class ContentBeansService {
                     // check if single/multiple  changed:
                     if (generatedMethod.isMultiType() != multiple) {
                         log.info("Property changed (single/multiple): {}", internalName);
-                        return JavaSourceUtils.deleteMethod(generatedMethod, beanPath);
+                        return session.deleteMethod(generatedMethod);
                     }
                     // TODO: check check if signature changed:
                 }
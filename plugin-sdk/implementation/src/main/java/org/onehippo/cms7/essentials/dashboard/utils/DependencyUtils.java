@@ -17,15 +17,14 @@
 package org.onehippo.cms7.essentials.dashboard.utils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
@@ -39,6 +38,7 @@ import org.onehippo.cms7.essentials.dashboard.model.TargetPom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 
 /**
@@ -47,6 +47,8 @@ import com.google.common.base.Strings;
 public final class DependencyUtils {
 
     public static final String DEFAULT_ID = "default";
+    private static final String DEFAULT_PROFILE_PLACEHOLDER_NAME = "ESSENTIALS_DEFAULT_PLACEHOLDER";
+    private static final String DEFAULT_PROFILE_PLACEHOLDER = "{{" + DEFAULT_PROFILE_PLACEHOLDER_NAME + "}}";
     private static Logger log = LoggerFactory.getLogger(DependencyUtils.class);
 
 
@@ -58,62 +60,65 @@ public final class DependencyUtils {
      *
      * @param repository Repository instance
      * @return true if tag is added or already exists
+     * @see PomEditSession for adding multiple repositories or dependencies
      */
     public static boolean addRepository(final PluginContext context, final Repository repository) {
         final TargetPom targetPom = repository.getDependencyTargetPom();
         if (targetPom == TargetPom.INVALID) {
             return false;
         }
-        final Model model = ProjectUtils.getPomModel(context, targetPom);
-        if (model == null) {
-            log.warn("Pom model was null for type: {}", targetPom);
-            return false;
-        }
-        if (!hasRepository(context, repository)) {
-
-            final org.apache.maven.model.Repository mavenRepository = repository.createMavenRepository();
-            model.addRepository(mavenRepository);
-            log.debug("Added new maven repository {}", repository);
-            final String pomPath = ProjectUtils.getPomPath(context, targetPom);
-            return writePom(pomPath, model);
-        }
-        return true;
+        final PomEditSession poms = new PomEditSession(context);
+        return poms.addRepository(repository) && poms.commit();
     }
 
+    /**
+     * Writes pom model. Pom file is written once, after fixing default profile ids.
+     *
+     * @param path  pom file path
+     * @param model pom model
+     * @return true if pom was written
+     */
     public static boolean writePom(final String path, final Model model) {
-        FileWriter fileWriter = null;
-        try {
-            fileWriter = new FileWriter(path);
-            // fix profile names (intellij expects default profile id)
-            // see: http://youtrack.jetbrains.com/issue/IDEA-126568
-            final List<Profile> profiles = model.getProfiles();
-            boolean needsRewrite = false;
-            for (Profile profile : profiles) {
-                if (Strings.isNullOrEmpty(profile.getId()) || profile.getId().equals("default")) {
-                    profile.setId("{{ESSENTIALS_DEFAULT_PLACEHOLDER}}");
-                    needsRewrite = true;
-                }
+        // fix profile names (intellij expects default profile id)
+        // see: http://youtrack.jetbrains.com/issue/IDEA-126568
+        final List<Profile> profiles = model.getProfiles();
+        boolean needsRewrite = false;
+        for (Profile profile : profiles) {
+            if (Strings.isNullOrEmpty(profile.getId()) || profile.getId().equals(DEFAULT_ID)) {
+                profile.setId(DEFAULT_PROFILE_PLACEHOLDER);
+                needsRewrite = true;
             }
+        }
+        try {
+            final StringWriter stringWriter = new StringWriter();
             final MavenXpp3Writer writer = new MavenXpp3Writer();
-            writer.write(fileWriter, model);
+            writer.write(stringWriter, model);
+            String pomContent = stringWriter.toString();
             if (needsRewrite) {
-                fileWriter.close();
                 // replace default id:
-                final String pomContent = GlobalUtils.readStreamAsText(new FileInputStream(path));
                 final Map<String, String> data = new HashMap<>();
-                data.put("ESSENTIALS_DEFAULT_PLACEHOLDER", DEFAULT_ID);
-                final String newContent = TemplateUtils.replaceStringPlaceholders(pomContent, data);
-                GlobalUtils.writeToFile(newContent, new File(path).toPath());
+                data.put(DEFAULT_PROFILE_PLACEHOLDER_NAME, DEFAULT_ID);
+                pomContent = TemplateUtils.replaceStringPlaceholders(pomContent, data);
                 log.debug("Fixed default profile id");
             }
+            try (Writer fileWriter = Files.newBufferedWriter(new File(path).toPath(), Charsets.UTF_8)) {
+                fileWriter.write(pomContent);
+            }
             log.debug("Written pom to: {}", path);
-            return true;
         } catch (IOException e) {
             log.error("Error adding maven dependency", e);
             return false;
         } finally {
-            IOUtils.closeQuietly(fileWriter);
+            if (needsRewrite) {
+                for (Profile profile : profiles) {
+                    if (DEFAULT_PROFILE_PLACEHOLDER.equals(profile.getId())) {
+                        profile.setId(DEFAULT_ID);
+                    }
+                }
+            }
         }
+        ProjectUtils.cachePomModel(path, model);
+        return true;
 
 
     }
@@ -123,32 +128,15 @@ public final class DependencyUtils {
      *
      * @param dependency instance of EssentialsDependency dependency
      * @return true if removed or did not exist, false if dependency was invalid or on IO error
+     * @see PomEditSession for removing multiple dependencies
      */
     public static boolean removeDependency(final PluginContext context, final EssentialsDependency dependency) {
         final TargetPom type = dependency.getDependencyTargetPom();
         if (type == TargetPom.INVALID) {
             return false;
         }
-        final Model model = ProjectUtils.getPomModel(context, type);
-        if (model == null) {
-            log.warn("Pom model was null for type: {}", type);
-            return false;
-        }
-        if (!hasDependency(context, dependency)) {
-            return true;
-        }
-        final List<Dependency> dependencies = model.getDependencies();
-        final Iterator<Dependency> iterator = dependencies.iterator();
-        while (iterator.hasNext()) {
-            final Dependency next = iterator.next();
-            if (isSameDependency(dependency, next)) {
-                iterator.remove();
-                log.info("Removed dependency {}", dependency);
-                break;
-            }
-        }
-        final String pomPath = ProjectUtils.getPomPath(context, type);
-        return writePom(pomPath, model);
+        final PomEditSession poms = new PomEditSession(context);
+        return poms.removeDependency(dependency) && poms.commit();
 
 
     }
@@ -159,6 +147,7 @@ public final class DependencyUtils {
      *
      * @param dependency instance of EssentialsDependency dependency
      * @return true if dependency is added or already exists
+     * @see PomEditSession for adding multiple repositories or dependencies
      */
 
     public static boolean addDependency(final PluginContext context, final EssentialsDependency dependency) {
@@ -166,18 +155,8 @@ public final class DependencyUtils {
         if (targetPom == TargetPom.INVALID) {
             return false;
         }
-        final Model model = ProjectUtils.getPomModel(context, targetPom);
-        if (model == null) {
-            log.warn("Pom model was null for targetPom: {}", targetPom);
-            return false;
-        }
-        if (!hasDependency(context, dependency)) {
-            final Dependency newDependency = dependency.createMavenDependency();
-            model.addDependency(newDependency);
-            final String pomPath = ProjectUtils.getPomPath(context, targetPom);
-            return writePom(pomPath, model);
-        }
-        return true;
+        final PomEditSession poms = new PomEditSession(context);
+        return poms.addDependency(dependency) && poms.commit();
 
     }
 
@@ -192,7 +171,10 @@ public final class DependencyUtils {
         if (type == TargetPom.INVALID) {
             return false;
         }
-        final Model model = ProjectUtils.getPomModel(context, type);
+        return hasRepository(ProjectUtils.getPomModel(context, type), repository);
+    }
+
+    static boolean hasRepository(final Model model, final Repository repository) {
         final List<org.apache.maven.model.Repository> repositories = model.getRepositories();
         for (org.apache.maven.model.Repository rep : repositories) {
             final String url = repository.getUrl();
@@ -221,7 +203,10 @@ public final class DependencyUtils {
         if (targetPom == TargetPom.INVALID) {
             return false;
         }
-        final Model model = ProjectUtils.getPomModel(context, targetPom);
+        return hasDependency(ProjectUtils.getPomModel(context, targetPom), dependency);
+    }
+
+    static boolean hasDependency(final Model model, final EssentialsDependency dependency) {
         final List<Dependency> dependencies = model.getDependencies();
         for (Dependency projectDependency : dependencies) {
             final boolean isSameDependency = isSameDependency(dependency, projectDependency);
@@ -253,21 +238,23 @@ public final class DependencyUtils {
         repository.setId("hippo-maven2-enterprise");
         repository.setId("Hippo Enterprise Maven 2");
         repository.setId("https://maven.onehippo.com/maven2-enterprise");
-        addRepository(context, repository);
-        final Model pomModel = ProjectUtils.getPomModel(context, TargetPom.PROJECT);
+        final PomEditSession poms = new PomEditSession(context);
+        poms.addRepository(repository);
+        final Model pomModel = poms.getModel(TargetPom.PROJECT);
         if (pomModel != null) {
             final Parent parent = new Parent();
             parent.setArtifactId(ProjectUtils.ENT_GROUP_ID);
             parent.setGroupId(ProjectUtils.ENT_GROUP_ID);
             pomModel.setParent(parent);
+            poms.markModified(TargetPom.PROJECT);
             // add indicator:
-            final Model cmsModel = ProjectUtils.getPomModel(context, TargetPom.CMS);
+            final Model cmsModel = poms.getModel(TargetPom.CMS);
             final Dependency indicator = new Dependency();
             indicator.setArtifactId("hippo-addon-edition-indicator");
             indicator.setGroupId("com.onehippo.cms7");
             cmsModel.addDependency(indicator);
-            writePom(ProjectUtils.getPomPath(context, TargetPom.CMS), cmsModel);
-            return writePom(ProjectUtils.getPomPath(context, TargetPom.PROJECT), pomModel);
+            poms.markModified(TargetPom.CMS);
+            return poms.commit();
         }
         return false;
     }
@@ -284,7 +271,7 @@ public final class DependencyUtils {
 
     }
 
-    private static boolean isSameDependency(final EssentialsDependency dependency, final Dependency projectDependency) {
+    static boolean isSameDependency(final EssentialsDependency dependency, final Dependency projectDependency) {
         return projectDependency.getArtifactId().equals(dependency.getArtifactId())
                 && projectDependency.getGroupId().equals(dependency.getGroupId());
     }
@@ -32,14 +32,11 @@ import java.util.regex.Pattern;
 
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
 import org.apache.commons.io.IOUtils;
-import org.hippoecm.repository.HippoRepository;
-import org.hippoecm.repository.HippoRepositoryFactory;
 import org.onehippo.cms7.essentials.dashboard.config.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -233,20 +230,25 @@ public final class GlobalUtils {
         }
     }
 
+    /**
+     * Borrows an (admin) session from the shared session pool. Sessions must be returned using
+     * {@link #cleanupSession(Session)}.
+     *
+     * @return session or null if repository isn't available
+     * @see JcrSessionPool
+     */
     public static Session createSession() {
-        try {
-            final HippoRepository repository = HippoRepositoryFactory.getHippoRepository("vm://");
-            // TODO: use login name/password ??
-            return repository.login("admin", "admin".toCharArray());
-        } catch (RepositoryException e) {
-            log.error("Error creating repository connection", e);
-        }
-        return null;
+        return JcrSessionPool.getInstance().borrow();
     }
 
+    /**
+     * Returns session to the session pool (unpooled sessions are logged out).
+     *
+     * @param session session to clean up, may be null
+     */
     public static void cleanupSession(final Session session) {
         if (session != null) {
-            session.logout();
+            JcrSessionPool.getInstance().release(session);
         }
 
     }
@@ -319,9 +321,7 @@ public final class GlobalUtils {
      */
     public static boolean marshalWriter(final Writer writer, final Document document) {
         try {
-            final JAXBContext jaxbContext = JAXBContext.newInstance(document.getClass());
-            final Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            final Marshaller marshaller = JaxbContextRegistry.getMarshaller(document.getClass());
             marshaller.marshal(document, writer);
             return true;
         } catch (JAXBException e) {
@@ -342,8 +342,7 @@ public final class GlobalUtils {
     public static <T extends Document> T unmarshalStream(final InputStream stream, final Class<T> clazz) {
         final String setting = readStreamAsText(stream);
         try {
-            final JAXBContext jaxbContext = JAXBContext.newInstance(clazz);
-            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(clazz);
             return (T) unmarshaller.unmarshal(new StringReader(setting));
         } catch (JAXBException e) {
             log.error("Error reading settings", e);
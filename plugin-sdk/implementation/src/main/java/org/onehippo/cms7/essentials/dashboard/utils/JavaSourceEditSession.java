@@ -0,0 +1,312 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.onehippo.cms7.essentials.dashboard.utils.code.EssentialsGeneratedMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batches modifications of a java source file: source is parsed once, all (method, import, annotation etc.) changes
+ * are applied to the same compilation unit and source is formatted and written once, on {@link #commit()}.
+ * <p/>
+ * Sessions are not thread safe.
+ * <pre>
+ * final JavaSourceEditSession session = new JavaSourceEditSession(beanPath);
+ * session.addBeanMethodString("getTitle", "myproject:title", false);
+ * session.addBeanMethodHippoHtml("getBody", "myproject:body", false);
+ * session.commit();
+ * </pre>
+ *
+ * @version "$Id$"
+ * @see JavaSourceUtils
+ */
+public class JavaSourceEditSession {
+
+    private static Logger log = LoggerFactory.getLogger(JavaSourceEditSession.class);
+
+    private final Path path;
+    private CompilationUnit unit;
+    private boolean modified;
+
+    public JavaSourceEditSession(final Path path) {
+        this.path = path;
+        reload();
+    }
+
+    /**
+     * Parses source file again, discarding all uncommitted changes.
+     */
+    public final void reload() {
+        unit = JavaSourceUtils.getCompilationUnit(path);
+        unit.recordModifications();
+        modified = false;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns (editable) compilation unit. Call {@link #markModified()} after changing it.
+     *
+     * @return compilation unit of the source file
+     */
+    public CompilationUnit getUnit() {
+        return unit;
+    }
+
+    public void markModified() {
+        modified = true;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * @see JavaSourceUtils#addImport(Path, CharSequence)
+     */
+    public void addImport(final CharSequence importName) {
+        if (JavaSourceUtils.addImportIfMissing(unit, importName)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @see JavaSourceUtils#addExtendsClass(Path, String)
+     */
+    public void addExtendsClass(final String extendingClassName) {
+        if (JavaSourceUtils.addExtendsClass(unit, extendingClassName)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @see JavaSourceUtils#addClassJavaDoc(Path, String)
+     */
+    public void addClassJavaDoc(final String text) {
+        if (JavaSourceUtils.addClassJavaDoc(unit, text)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @see JavaSourceUtils#addHippoGeneratedBeanAnnotation(Path)
+     */
+    public void addHippoGeneratedBeanAnnotation() {
+        if (JavaSourceUtils.addHippoGeneratedBeanAnnotation(unit)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @see JavaSourceUtils#annotateMethod(EssentialsGeneratedMethod, Path)
+     */
+    public void annotateMethod(final EssentialsGeneratedMethod method) {
+        if (JavaSourceUtils.annotateMethod(method, unit)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * @return true if method was deleted
+     * @see JavaSourceUtils#deleteMethod(EssentialsGeneratedMethod, Path)
+     */
+    public boolean deleteMethod(final EssentialsGeneratedMethod method) {
+        if (JavaSourceUtils.deleteMethod(method, unit)) {
+            modified = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @see JavaSourceUtils#addParameterizedMethod(String, String, String, Path, String, String)
+     */
+    public void addParameterizedMethod(final String methodName, final String returnType, final String genericsType, final String returnMethodName, final String propertyName) {
+        JavaSourceUtils.addParameterizedMethod(methodName, returnType, genericsType, unit, returnMethodName, propertyName);
+        modified = true;
+    }
+
+    /**
+     * @see JavaSourceUtils#addTwoArgumentsMethod(String, String, Path, String, String)
+     */
+    public void addTwoArgumentsMethod(final String returnMethodName, final String returnType, final String methodName, final String propertyName) {
+        JavaSourceUtils.addTwoArgumentsMethod(returnMethodName, returnType, unit, methodName, propertyName);
+        modified = true;
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodCalendar(Path, String, String, boolean)
+     */
+    public void addBeanMethodCalendar(final String methodName, final String propertyName, final boolean multiple) {
+        addBeanMethodProperty(methodName, propertyName, multiple ? "Calendar[]" : "Calendar");
+        addImport(Calendar.class.getName());
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodHippoHtml(Path, String, String, boolean)
+     */
+    public void addBeanMethodHippoHtml(final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addImport(List.class.getName());
+            addParameterizedMethod(methodName, "List", "HippoHtml", "getChildBeansByName", propertyName);
+        } else {
+            JavaSourceUtils.addSimpleMethod("getHippoHtml", unit, methodName, propertyName, "HippoHtml");
+            modified = true;
+        }
+        addImport("org.hippoecm.hst.content.beans.standard.HippoHtml");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodHippoMirror(Path, String, String, boolean)
+     */
+    public void addBeanMethodHippoMirror(final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addParameterizedMethod(methodName, "List", "HippoBean", "getLinkedBeans", propertyName);
+            addImport(List.class.getName());
+        } else {
+            addTwoArgumentsMethod("getLinkedBean", "HippoBean", methodName, propertyName);
+        }
+        addImport("org.hippoecm.hst.content.beans.standard.HippoBean");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodHippoImage(Path, String, String, boolean)
+     */
+    public void addBeanMethodHippoImage(final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addParameterizedMethod(methodName, "List", "HippoGalleryImageBean", "getBeans", propertyName);
+            addImport(List.class.getName());
+        } else {
+            addTwoArgumentsMethod("getBean", "HippoGalleryImageBean", methodName, propertyName);
+        }
+        addImport("org.hippoecm.hst.content.beans.standard.HippoGalleryImageBean");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodHippoImageSet(Path, String, String, boolean)
+     */
+    public void addBeanMethodHippoImageSet(final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addParameterizedMethod(methodName, "List", "HippoGalleryImageSet", "getChildBeansByName", propertyName);
+            addImport(List.class.getName());
+        } else {
+            addTwoArgumentsMethod("getLinkedBean", "HippoGalleryImageSet", methodName, propertyName);
+        }
+        addImport("org.hippoecm.hst.content.beans.standard.HippoGalleryImageSet");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodInternalType(Path, String, String, String, String, boolean)
+     */
+    public void addBeanMethodInternalType(final String className, final String importPath, final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addParameterizedMethod(methodName, "List", className, "getChildBeansByName", propertyName);
+            addImport(List.class.getName());
+        } else {
+            addTwoArgumentsMethod("getBean", className, methodName, propertyName);
+        }
+        addImport(importPath);
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodInternalImageSet(Path, String, String, String, String, boolean)
+     */
+    public void addBeanMethodInternalImageSet(final String className, final String importPath, final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addParameterizedMethod(methodName, "List", className, "getLinkedBeans", propertyName);
+            addImport(List.class.getName());
+        } else {
+            addTwoArgumentsMethod("getLinkedBean", className, methodName, propertyName);
+        }
+        addImport(importPath);
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodImageLink(Path, String, String, boolean)
+     */
+    public void addBeanMethodImageLink(final String methodName, final String propertyName, final boolean multiple) {
+        if (multiple) {
+            addImport(List.class.getName());
+            addParameterizedMethod(methodName, "List", "HippoGalleryImageSet", "getLinkedBeans", propertyName);
+        } else {
+            addTwoArgumentsMethod("getLinkedBean", "HippoGalleryImageSet", methodName, propertyName);
+        }
+        addImport("org.hippoecm.hst.content.beans.standard.HippoGalleryImageSet");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodString(Path, String, String, boolean)
+     */
+    public void addBeanMethodString(final String methodName, final String propertyName, final boolean multiple) {
+        addBeanMethodProperty(methodName, propertyName, multiple ? "String[]" : "String");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodBoolean(Path, String, String, boolean)
+     */
+    public void addBeanMethodBoolean(final String methodName, final String propertyName, final boolean multiple) {
+        // TODO add null checks and return Boolean.FALSE
+        addBeanMethodProperty(methodName, propertyName, multiple ? "Boolean[]" : "Boolean");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodDouble(Path, String, String, boolean)
+     */
+    public void addBeanMethodDouble(final String methodName, final String propertyName, final boolean multiple) {
+        addBeanMethodProperty(methodName, propertyName, multiple ? "Double[]" : "Double");
+    }
+
+    /**
+     * @see JavaSourceUtils#addBeanMethodLong(Path, String, String, boolean)
+     */
+    public void addBeanMethodLong(final String methodName, final String propertyName, final boolean multiple) {
+        addBeanMethodProperty(methodName, propertyName, multiple ? "Long[]" : "Long");
+    }
+
+    /**
+     * Formats and writes source file, if modified.
+     *
+     * @return true if source was written (or there was nothing to write)
+     */
+    public boolean commit() {
+        if (!modified) {
+            return true;
+        }
+        final String source = JavaSourceUtils.rewrite(unit, unit.getAST());
+        if (source == null) {
+            log.error("Couldn't rewrite java source: {}", path);
+            return false;
+        }
+        log.debug("Rewriting\n{}", source);
+        GlobalUtils.writeToFile(source, path);
+        modified = false;
+        return true;
+    }
+
+    private void addBeanMethodProperty(final String methodName, final String propertyName, final String returnType) {
+        JavaSourceUtils.addBeanMethodProperty(unit, methodName, propertyName, returnType);
+        modified = true;
+    }
+}
@@ -23,7 +23,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -78,8 +77,14 @@ public final class JavaSourceUtils {
     }
 
     public static boolean deleteMethod(final EssentialsGeneratedMethod method, final Path path) {
-        final CompilationUnit deleteUnit = getCompilationUnit(path);
-        final ExistingMethodsVisitor methodCollection = JavaSourceUtils.getMethodCollection(path);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        final boolean deleted = session.deleteMethod(method);
+        session.commit();
+        return deleted;
+    }
+
+    static boolean deleteMethod(final EssentialsGeneratedMethod method, final CompilationUnit deleteUnit) {
+        final ExistingMethodsVisitor methodCollection = JavaSourceUtils.getMethodCollection(deleteUnit);
         final List<EssentialsGeneratedMethod> generatedMethods = methodCollection.getGeneratedMethods();
         final Map<String, EssentialsGeneratedMethod> deletedMethods = new HashMap<>();
         final String oldReturnType = getReturnType(method.getReturnType());
@@ -105,14 +110,7 @@ public final class JavaSourceUtils {
             }
         });
 
-        final int deletedSize = deletedMethods.size();
-        if (deletedSize > 0) {
-            // rewrite source:
-            final AST deleteAst = deleteUnit.getAST();
-            final String deletedSource = JavaSourceUtils.rewrite(deleteUnit, deleteAst);
-            GlobalUtils.writeToFile(deletedSource, path);
-        }
-        return deletedSize > 0;
+        return !deletedMethods.isEmpty();
 
     }
 
@@ -273,17 +271,20 @@ public final class JavaSourceUtils {
      * @param extendingClassName name of the class bean is extending
      */
     public static void addExtendsClass(final Path path, final String extendingClassName) {
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addExtendsClass(extendingClassName);
+        session.commit();
+    }
 
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
+    static boolean addExtendsClass(final CompilationUnit unit, final String extendingClassName) {
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
         final AST ast = unit.getAST();
         final Type superclassType = classType.getSuperclassType();
         if (superclassType == null) {
             classType.setSuperclassType(ast.newSimpleType(ast.newSimpleName(extendingClassName)));
-            final String rewrite = rewrite(unit, ast);
-            GlobalUtils.writeToFile(rewrite, path);
+            return true;
         }
+        return false;
     }
 
     public static String getExtendsClass(final Path path) {
@@ -379,9 +380,9 @@ public final class JavaSourceUtils {
      */
     @SuppressWarnings("unchecked")
     public static void addClassJavaDoc(final Path path, final String text) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        final String code = addClassJavaDoc(unit.toString(), text);
-        GlobalUtils.writeToFile(formatCode(code), path);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addClassJavaDoc(text);
+        session.commit();
     }
 
     /**
@@ -394,6 +395,21 @@ public final class JavaSourceUtils {
     @SuppressWarnings("unchecked")
     public static String addClassJavaDoc(final String content, final String text) {
         final CompilationUnit unit = JavaSourceUtils.getCompilationUnit(content);
+        if (addClassJavaDoc(unit, text)) {
+            return JavaSourceUtils.rewrite(unit, unit.getAST());
+        }
+        return content;
+    }
+
+    /**
+     * Add text to class comment (javadoc) node of given compilation unit. If text already exists it will not be added
+     *
+     * @param unit compilation unit of an class
+     * @param text text to add
+     * @return true if javadoc was changed
+     */
+    @SuppressWarnings("unchecked")
+    static boolean addClassJavaDoc(final CompilationUnit unit, final String text) {
         final AST ast = unit.getAST();
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
         Javadoc javadoc = classType.getJavadoc();
@@ -405,7 +421,7 @@ public final class JavaSourceUtils {
             tag.fragments().add(element);
             javadoc.tags().add(tag);
             classType.setJavadoc(javadoc);
-            return JavaSourceUtils.rewrite(unit, ast);
+            return true;
         } else {
             // check if text exists
             final List<TagElement> tags = javadoc.tags();
@@ -419,7 +435,7 @@ public final class JavaSourceUtils {
                             final String existingText = textNode.getText();
                             if (existingText.equals(text)) {
                                 log.debug("Comment already in there: {}", existingText);
-                                return content;
+                                return false;
                             }
                         }
                     }
@@ -430,7 +446,7 @@ public final class JavaSourceUtils {
             final TagElement tag = ast.newTagElement();
             tag.fragments().add(element);
             javadoc.tags().add(tag);
-            return JavaSourceUtils.rewrite(unit, ast);
+            return true;
         }
 
     }
@@ -441,25 +457,31 @@ public final class JavaSourceUtils {
      * @param path path to java source file
      */
     public static void addHippoGeneratedBeanAnnotation(final Path path) {
-        final String nodeJcrType = getNodeJcrType(path);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addHippoGeneratedBeanAnnotation();
+        session.commit();
+    }
+
+    static boolean addHippoGeneratedBeanAnnotation(final CompilationUnit unit) {
+        final String nodeJcrType = getNodeJcrType(unit);
         if (nodeJcrType == null) {
             log.warn("Cannot generate internal name, jcrType was undefined");
-            return;
+            return false;
         }
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
-        final AST ast = unit.getAST();
-        addHippoGeneratedAnnotation(nodeJcrType, unit, classType, ast);
-        replaceFile(path, unit, ast);
-
-
+        addHippoGeneratedAnnotation(nodeJcrType, unit, classType, unit.getAST());
+        return true;
     }
 
     public static void annotateMethod(final EssentialsGeneratedMethod method, final Path path) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.annotateMethod(method);
+        session.commit();
+    }
+
+    static boolean annotateMethod(final EssentialsGeneratedMethod method, final CompilationUnit unit) {
         final AST ast = unit.getAST();
+        final boolean[] annotated = {false};
         unit.accept(new ASTVisitor() {
             @SuppressWarnings(RAWTYPES)
             @Override
@@ -474,13 +496,12 @@ public final class JavaSourceUtils {
                 if (parameters != null && myParams != null && myParams.size() == parameters.size()) {
                     // check method id:
                     addHippoGeneratedAnnotation(method.getInternalName(), unit, node, ast);
-                    // rewrite file:
-                    replaceFile(path, unit, ast);
+                    annotated[0] = true;
                 }
                 return super.visit(node);
             }
         });
-
+        return annotated[0];
     }
 
     public static void annotateMethod(final EssentialsGeneratedMethod method, final MemoryBean bean) {
@@ -532,11 +553,9 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      */
     public static void addBeanMethodCalendar(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        final String returnType = multiple ? "Calendar[]" : "Calendar";
-        addBeanMethodProperty(path, methodName, propertyName, returnType);
-        final String importName = Calendar.class.getName();
-        addImport(path, importName);
-
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodCalendar(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -547,15 +566,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     indicates multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodHippoHtml(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addImport(path, List.class.getName());
-            addParameterizedMethod(methodName, "List", "HippoHtml", path, "getChildBeansByName", propertyName);
-        } else {
-            addSimpleMethod("getHippoHtml", path, methodName, propertyName, "HippoHtml");
-        }
-        addImport(path, "org.hippoecm.hst.content.beans.standard.HippoHtml");
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodHippoHtml(methodName, propertyName, multiple);
+        session.commit();
     }
 
 
@@ -567,17 +581,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     is multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodHippoMirror(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addParameterizedMethod(methodName, "List", "HippoBean", path, "getLinkedBeans", propertyName);
-            addImport(path, List.class.getName());
-        } else {
-            addTwoArgumentsMethod("getLinkedBean", "HippoBean", path, methodName, propertyName);
-        }
-        addImport(path, "org.hippoecm.hst.content.beans.standard.HippoBean");
-
-
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodHippoMirror(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -588,47 +595,28 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     is multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodHippoImage(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addParameterizedMethod(methodName, "List", "HippoGalleryImageBean", path, "getBeans", propertyName);
-            addImport(path, List.class.getName());
-        } else {
-            addTwoArgumentsMethod("getBean", "HippoGalleryImageBean", path, methodName, propertyName);
-        }
-        addImport(path, "org.hippoecm.hst.content.beans.standard.HippoGalleryImageBean");
-
-
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodHippoImage(methodName, propertyName, multiple);
+        session.commit();
     }
 
     public static void addBeanMethodHippoImageSet(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addParameterizedMethod(methodName, "List", "HippoGalleryImageSet", path, "getChildBeansByName", propertyName);
-            addImport(path, List.class.getName());
-        } else {
-            addTwoArgumentsMethod("getLinkedBean", "HippoGalleryImageSet", path, methodName, propertyName);
-        }
-        addImport(path, "org.hippoecm.hst.content.beans.standard.HippoGalleryImageSet");
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodHippoImageSet(methodName, propertyName, multiple);
+        session.commit();
     }
 
     public static void addBeanMethodInternalType(final Path path, final String className, final String importPath, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addParameterizedMethod(methodName, "List", className, path, "getChildBeansByName", propertyName);
-            addImport(path, List.class.getName());
-        } else {
-            addTwoArgumentsMethod("getBean", className, path, methodName, propertyName);
-        }
-        addImport(path, importPath);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodInternalType(className, importPath, methodName, propertyName, multiple);
+        session.commit();
     }
 
     public static void addBeanMethodInternalImageSet(final Path path, final String className, final String importPath, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addParameterizedMethod(methodName, "List", className, path, "getLinkedBeans", propertyName);
-            addImport(path, List.class.getName());
-        } else {
-            addTwoArgumentsMethod("getLinkedBean", className, path, methodName, propertyName);
-        }
-        addImport(path, importPath);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodInternalImageSet(className, importPath, methodName, propertyName, multiple);
+        session.commit();
     }
 
 
@@ -641,13 +629,9 @@ public final class JavaSourceUtils {
      * @param multiple     indicates multiple property
      */
     public static void addBeanMethodImageLink(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        if (multiple) {
-            addImport(path, List.class.getName());
-            addParameterizedMethod(methodName, "List", "HippoGalleryImageSet", path, "getLinkedBeans", propertyName);
-        } else {
-            addTwoArgumentsMethod("getLinkedBean", "HippoGalleryImageSet", path, methodName, propertyName);
-        }
-        addImport(path, "org.hippoecm.hst.content.beans.standard.HippoGalleryImageSet");
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodImageLink(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -658,10 +642,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     indicates multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodString(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        final String returnType = multiple ? "String[]" : "String";
-        addBeanMethodProperty(path, methodName, propertyName, returnType);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodString(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -672,11 +656,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     indicates multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodBoolean(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        // TODO add null checks and return Boolean.FALSE
-        final String returnType = multiple ? "Boolean[]" : "Boolean";
-        addBeanMethodProperty(path, methodName, propertyName, returnType);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodBoolean(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -687,10 +670,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     indicates multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodDouble(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        final String returnType = multiple ? "Double[]" : "Double";
-        addBeanMethodProperty(path, methodName, propertyName, returnType);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodDouble(methodName, propertyName, multiple);
+        session.commit();
     }
 
     /**
@@ -701,10 +684,10 @@ public final class JavaSourceUtils {
      * @param propertyName name of the property
      * @param multiple     indicates multiple property
      */
-    @SuppressWarnings(UNCHECKED)
     public static void addBeanMethodLong(final Path path, final String methodName, final String propertyName, final boolean multiple) {
-        final String returnType = multiple ? "Long[]" : "Long";
-        addBeanMethodProperty(path, methodName, propertyName, returnType);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addBeanMethodLong(methodName, propertyName, multiple);
+        session.commit();
     }
 
     public static ExistingMethodsVisitor getMethodCollection(final CompilationUnit unit) {
@@ -863,8 +846,12 @@ public final class JavaSourceUtils {
      * @see EssentialConst#NODE_ANNOTATION_NAME
      */
     public static String getNodeJcrType(final Path path) {
+        return getNodeJcrType(getCompilationUnit(path));
+    }
+
+    static String getNodeJcrType(final CompilationUnit unit) {
         @SuppressWarnings({UNCHECKED, RAWTYPES})
-        final List modifiers = getClassAnnotations(path);
+        final List modifiers = getClassAnnotations(unit);
         String jcrType = null;
         for (Object modifier : modifiers) {
             if (modifier instanceof NormalAnnotation) {
@@ -1000,18 +987,25 @@ public final class JavaSourceUtils {
      */
     @SuppressWarnings(UNCHECKED)
     public static void addImport(final Path path, final CharSequence importName) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
-        final AST ast = unit.getAST();
-        addImport(unit, ast, importName);
-        replaceFile(path, unit, ast);
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addImport(importName);
+        session.commit();
     }
 
-    @SuppressWarnings(UNCHECKED)
     public static void addImport(final CompilationUnit unit, final CharSequence importName) {
-        final AST ast = unit.getAST();
-        addImport(unit, ast, importName);
+        addImportIfMissing(unit, importName);
+    }
 
+    /**
+     * Add import statement for given class, if not already imported
+     *
+     * @param unit       compilation unit of the java source class
+     * @param importName name of the import e.g {@code java.util.List}
+     * @return true if import was added
+     */
+    static boolean addImportIfMissing(final CompilationUnit unit, final CharSequence importName) {
+        final AST ast = unit.getAST();
+        return addImport(unit, ast, importName);
     }
 
     public static String addImport(final String source, final CharSequence importName) {
@@ -1036,7 +1030,11 @@ public final class JavaSourceUtils {
 
     @SuppressWarnings(UNCHECKED)
     private static List<Object> getClassAnnotations(final Path path) {
-        final CompilationUnit unit = getCompilationUnit(path);
+        return getClassAnnotations(getCompilationUnit(path));
+    }
+
+    @SuppressWarnings(UNCHECKED)
+    private static List<Object> getClassAnnotations(final CompilationUnit unit) {
         List<Object> modifiers = null;
         if (unit.types().size() > 0) {
             final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
@@ -1073,30 +1071,29 @@ public final class JavaSourceUtils {
     }
 
     @SuppressWarnings({UNCHECKED, RAWTYPES})
-    private static void addImport(final CompilationUnit unit, final AST ast, final CharSequence importName) {
+    private static boolean addImport(final CompilationUnit unit, final AST ast, final CharSequence importName) {
         final List imports = unit.imports();
         for (Object anImport : imports) {
             final ImportDeclaration declaration = (ImportDeclaration) anImport;
             final String fullyQualifiedName = declaration.getName().getFullyQualifiedName();
             if (importName.equals(fullyQualifiedName)) {
                 log.debug("Import already exists, skipping {}", fullyQualifiedName);
-                return;
+                return false;
             }
         }
         final ImportDeclaration essentialsImportDeclaration = ast.newImportDeclaration();
         essentialsImportDeclaration.setName(ast.newName(DOT_SPLITTER.split(importName)));
         imports.add(essentialsImportDeclaration);
+        return true;
     }
 
     @SuppressWarnings(UNCHECKED)
-    private static void addBeanMethodProperty(final Path path, final String methodName, final String propertyName, final String returnType) {
-        addSimpleMethod("getProperty", path, methodName, propertyName, returnType);
+    static void addBeanMethodProperty(final CompilationUnit unit, final String methodName, final String propertyName, final String returnType) {
+        addSimpleMethod("getProperty", unit, methodName, propertyName, returnType);
     }
 
     @SuppressWarnings(UNCHECKED)
-    private static void addSimpleMethod(final String hippoMethodName, final Path path, final String methodName, final String propertyName, final String returnType) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
+    static void addSimpleMethod(final String hippoMethodName, final CompilationUnit unit, final String methodName, final String propertyName, final String returnType) {
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
         final AST ast = unit.getAST();
         final MethodDeclaration methodDeclaration = ast.newMethodDeclaration();
@@ -1124,7 +1121,6 @@ public final class JavaSourceUtils {
         final MarkerAnnotation generatedAnnotation = ast.newMarkerAnnotation();
         generatedAnnotation.setTypeName(ast.newName(HippoEssentialsGenerated.class.getSimpleName()));
         addHippoGeneratedAnnotation(propertyName, unit, methodDeclaration, ast);
-        replaceFile(path, unit, ast);
     }
 
     @SuppressWarnings(UNCHECKED)
@@ -1232,11 +1228,14 @@ public final class JavaSourceUtils {
     }
 
 
-    @SuppressWarnings(UNCHECKED)
-
     public static void addParameterizedMethod(final String methodName, final String returnType, final String genericsType, final Path path, final String returnMethodName, final String propertyName) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addParameterizedMethod(methodName, returnType, genericsType, returnMethodName, propertyName);
+        session.commit();
+    }
+
+    @SuppressWarnings(UNCHECKED)
+    static void addParameterizedMethod(final String methodName, final String returnType, final String genericsType, final CompilationUnit unit, final String returnMethodName, final String propertyName) {
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
         final AST ast = unit.getAST();
         final MethodDeclaration methodDeclaration = ast.newMethodDeclaration();
@@ -1268,14 +1267,16 @@ public final class JavaSourceUtils {
         final MarkerAnnotation generatedAnnotation = ast.newMarkerAnnotation();
         generatedAnnotation.setTypeName(ast.newName(HippoEssentialsGenerated.class.getSimpleName()));
         addHippoGeneratedAnnotation(propertyName, unit, methodDeclaration, ast);
-        replaceFile(path, unit, ast);
+    }
 
+    public static void addTwoArgumentsMethod(final String returnMethodName, final String returnType, final Path path, final String methodName, final String propertyName) {
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        session.addTwoArgumentsMethod(returnMethodName, returnType, methodName, propertyName);
+        session.commit();
     }
 
     @SuppressWarnings(UNCHECKED)
-    public static void addTwoArgumentsMethod(final String returnMethodName, final String returnType, final Path path, final String methodName, final String propertyName) {
-        final CompilationUnit unit = getCompilationUnit(path);
-        unit.recordModifications();
+    static void addTwoArgumentsMethod(final String returnMethodName, final String returnType, final CompilationUnit unit, final String methodName, final String propertyName) {
         final TypeDeclaration classType = (TypeDeclaration) unit.types().get(0);
         final AST ast = unit.getAST();
         final MethodDeclaration methodDeclaration = ast.newMethodDeclaration();
@@ -1304,7 +1305,6 @@ public final class JavaSourceUtils {
         final MarkerAnnotation generatedAnnotation = ast.newMarkerAnnotation();
         generatedAnnotation.setTypeName(ast.newName(HippoEssentialsGenerated.class.getSimpleName()));
         addHippoGeneratedAnnotation(propertyName, unit, methodDeclaration, ast);
-        replaceFile(path, unit, ast);
     }
 
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Registry of (lazily created) JAXB contexts. Creating a {@code JAXBContext} is expensive, while contexts are thread
+ * safe, so a single context is created for each (root) class.
+ * <p/>
+ * Marshallers and unmarshallers are cheap to create from a shared context, but not thread safe: a new one is created
+ * for each call, and must not be shared with other threads. Marshallers are configured with formatted output.
+ *
+ * @version "$Id$"
+ */
+public final class JaxbContextRegistry {
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private JaxbContextRegistry() {
+    }
+
+    /**
+     * Returns JAXB context for given class, context is created on first use.
+     *
+     * @param clazz JAXB annotated class
+     * @return shared JAXB context
+     * @throws JAXBException when context cannot be created
+     */
+    public static JAXBContext getContext(final Class<?> clazz) throws JAXBException {
+        final JAXBContext context = CONTEXTS.get(clazz);
+        if (context != null) {
+            return context;
+        }
+        final JAXBContext created = JAXBContext.newInstance(clazz);
+        final JAXBContext existing = CONTEXTS.putIfAbsent(clazz, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Creates (formatting) marshaller for given class, using the shared context.
+     *
+     * @param clazz JAXB annotated class
+     * @return new marshaller, not to be shared with other threads
+     * @throws JAXBException when marshaller cannot be created
+     */
+    public static Marshaller getMarshaller(final Class<?> clazz) throws JAXBException {
+        final Marshaller marshaller = getContext(clazz).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+        return marshaller;
+    }
+
+    /**
+     * Creates unmarshaller for given class, using the shared context.
+     *
+     * @param clazz JAXB annotated class
+     * @return new unmarshaller, not to be shared with other threads
+     * @throws JAXBException when unmarshaller cannot be created
+     */
+    public static Unmarshaller getUnmarshaller(final Class<?> clazz) throws JAXBException {
+        return getContext(clazz).createUnmarshaller();
+    }
+
+    /**
+     * Removes all contexts
+     */
+    public static void clear() {
+        CONTEXTS.clear();
+    }
+}
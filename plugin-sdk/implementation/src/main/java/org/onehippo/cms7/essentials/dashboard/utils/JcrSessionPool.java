@@ -0,0 +1,359 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.repository.HippoRepository;
+import org.hippoecm.repository.HippoRepositoryFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Bounded pool of (admin) JCR sessions, so plugin installation and setup don't log into the repository for every
+ * instruction or resource call.
+ * <p/>
+ * Sessions are borrowed using {@link #borrow()} and must be given back using {@link #release(Session)} (see also
+ * {@link GlobalUtils#cleanupSession(Session)}). Returned sessions are refreshed, discarding any unsaved changes,
+ * so each borrower starts with a clean session. Sessions which are borrowed for longer than the leak threshold are
+ * reported as leaked and their pool slot is reclaimed, as is the slot of a borrowed session which is no longer live.
+ * When all sessions are in use, {@link #borrow()} waits for a session to be returned; if none is returned in time, an
+ * unpooled session is created. Unpooled and leaked sessions are logged out on release, releasing a session which is
+ * unknown to the pool (or already returned) has no effect. {@link #close()} logs out idle sessions on shutdown.
+ *
+ * @version "$Id$"
+ */
+public class JcrSessionPool {
+
+    public static final int DEFAULT_MAX_ACTIVE = 8;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    public static final long DEFAULT_LEAK_THRESHOLD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static Logger log = LoggerFactory.getLogger(JcrSessionPool.class);
+    private static final JcrSessionPool INSTANCE = new JcrSessionPool(new SessionFactory() {
+        @Override
+        public Session create() throws RepositoryException {
+            final HippoRepository repository = HippoRepositoryFactory.getHippoRepository("vm://");
+            return repository.login("admin", "admin".toCharArray());
+        }
+    }, DEFAULT_MAX_ACTIVE, DEFAULT_MAX_WAIT_MILLIS, DEFAULT_LEAK_THRESHOLD_MILLIS);
+
+    private final SessionFactory factory;
+    private final int maxActive;
+    private final long maxWaitMillis;
+    private final long leakThresholdMillis;
+
+    private final Deque<Session> idle = new ArrayDeque<>();
+    private final Map<Session, Borrowed> borrowed = new IdentityHashMap<>();
+    /**
+     * Sessions handed out by this pool which don't occupy a slot (unpooled and leaked sessions), logged out on release.
+     * Weak keys (compared by identity), so sessions which are never released don't stay around.
+     */
+    private final Set<Session> detached = Collections.newSetFromMap(new MapMaker().weakKeys().<Session, Boolean>makeMap());
+    /**
+     * Number of pool slots reserved for sessions which are being created
+     */
+    private int creating;
+
+    private long createdCount;
+    private long borrowedCount;
+    private long returnedCount;
+    private long discardedCount;
+    private long unpooledCount;
+    private long leakedCount;
+    private boolean closed;
+
+    /**
+     * Creates session factory.
+     */
+    public interface SessionFactory {
+        Session create() throws RepositoryException;
+    }
+
+    public JcrSessionPool(final SessionFactory factory, final int maxActive, final long maxWaitMillis, final long leakThresholdMillis) {
+        this.factory = factory;
+        this.maxActive = maxActive;
+        this.maxWaitMillis = maxWaitMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+    }
+
+    /**
+     * Returns pool of (admin) sessions of the (local) repository
+     *
+     * @return shared pool instance
+     */
+    public static JcrSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrows a session from the pool.
+     *
+     * @return session or null if no session could be created or the pool is closed
+     */
+    public Session borrow() {
+        boolean pooled;
+        synchronized (this) {
+            if (closed) {
+                log.warn("Session pool is closed, no session is borrowed");
+                return null;
+            }
+            final long deadline = System.currentTimeMillis() + maxWaitMillis;
+            while (true) {
+                final Session session = idle.pollFirst();
+                if (session != null) {
+                    if (session.isLive()) {
+                        return markBorrowed(session);
+                    }
+                    discardedCount++;
+                    continue;
+                }
+                reclaimLeaks();
+                if (borrowed.size() + creating < maxActive) {
+                    // reserve a slot, session is created outside of the lock:
+                    creating++;
+                    pooled = true;
+                    break;
+                }
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("All {} pooled sessions are in use, creating unpooled session. {}", maxActive, this);
+                    unpooledCount++;
+                    pooled = false;
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+        // logging in may take a while, don't block other borrowers (nor returned sessions) meanwhile:
+        final Session created = createSession();
+        synchronized (this) {
+            if (created != null) {
+                createdCount++;
+            }
+            if (!pooled) {
+                if (created != null) {
+                    detached.add(created);
+                }
+                return created;
+            }
+            creating--;
+            if (created == null) {
+                // slot is free again
+                notifyAll();
+                return null;
+            }
+            return markBorrowed(created);
+        }
+    }
+
+    /**
+     * Returns a session to the pool. Unpooled and leaked sessions are logged out, unknown sessions and sessions which
+     * are already returned are ignored.
+     *
+     * @param session session to return, may be null
+     */
+    public synchronized void release(final Session session) {
+        if (session == null) {
+            return;
+        }
+        final Borrowed entry = borrowed.remove(session);
+        if (entry == null) {
+            if (detached.remove(session)) {
+                session.logout();
+            } else {
+                log.debug("Ignoring release of session which is not borrowed from the pool (or already returned)");
+            }
+            return;
+        }
+        returnedCount++;
+        if (!closed && refresh(session)) {
+            idle.addFirst(session);
+        } else {
+            discardedCount++;
+            session.logout();
+        }
+        notifyAll();
+    }
+
+    /**
+     * @param session session to check
+     * @return true if session is borrowed from this pool (and not returned yet)
+     */
+    public synchronized boolean isBorrowed(final Session session) {
+        return borrowed.containsKey(session);
+    }
+
+    /**
+     * Logs out all idle sessions, borrowed sessions are logged out when returned.
+     */
+    public synchronized void clear() {
+        for (Session session : idle) {
+            session.logout();
+        }
+        idle.clear();
+        // free the slots of borrowed sessions: they are logged out on release
+        detached.addAll(borrowed.keySet());
+        borrowed.clear();
+        notifyAll();
+    }
+
+    /**
+     * Closes the pool (e.g. on shutdown): logs out all idle sessions, borrowed sessions are logged out when returned.
+     * No sessions can be borrowed afterwards.
+     */
+    public synchronized void close() {
+        closed = true;
+        clear();
+        log.info("Closed session pool: {}", this);
+    }
+
+    //############################################
+    // METRICS
+    //############################################
+
+    public synchronized int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    public synchronized long getCreatedCount() {
+        return createdCount;
+    }
+
+    public synchronized long getBorrowedCount() {
+        return borrowedCount;
+    }
+
+    public synchronized long getReturnedCount() {
+        return returnedCount;
+    }
+
+    public synchronized long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    public synchronized long getUnpooledCount() {
+        return unpooledCount;
+    }
+
+    public synchronized long getLeakedCount() {
+        return leakedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("JcrSessionPool{");
+        sb.append("active=").append(borrowed.size());
+        sb.append(", idle=").append(idle.size());
+        sb.append(", created=").append(createdCount);
+        sb.append(", borrowed=").append(borrowedCount);
+        sb.append(", returned=").append(returnedCount);
+        sb.append(", discarded=").append(discardedCount);
+        sb.append(", unpooled=").append(unpooledCount);
+        sb.append(", leaked=").append(leakedCount);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    //############################################
+    // UTILITY METHODS
+    //############################################
+
+    private Session markBorrowed(final Session session) {
+        borrowedCount++;
+        borrowed.put(session, new Borrowed(System.currentTimeMillis(), log.isDebugEnabled() ? new Exception("Session borrowed") : null));
+        return session;
+    }
+
+    private Session createSession() {
+        try {
+            return factory.create();
+        } catch (RepositoryException e) {
+            log.error("Error creating repository connection", e);
+        }
+        return null;
+    }
+
+    private static boolean refresh(final Session session) {
+        if (!session.isLive()) {
+            return false;
+        }
+        try {
+            session.refresh(false);
+            return true;
+        } catch (RepositoryException e) {
+            log.warn("Error refreshing returned session", e);
+        }
+        return false;
+    }
+
+    /**
+     * Frees the slots of borrowed sessions which are logged out or not returned within the leak threshold.
+     */
+    private void reclaimLeaks() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Map.Entry<Session, Borrowed>> iterator = borrowed.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Session, Borrowed> entry = iterator.next();
+            final Session session = entry.getKey();
+            final Borrowed borrowedEntry = entry.getValue();
+            if (!session.isLive()) {
+                iterator.remove();
+                discardedCount++;
+                log.warn("Borrowed session was logged out instead of returned to the pool", borrowedEntry.origin);
+            } else if (now - borrowedEntry.timestamp > leakThresholdMillis) {
+                iterator.remove();
+                detached.add(session);
+                leakedCount++;
+                log.warn("Session borrowed {} ms ago was not returned to the pool (missing GlobalUtils.cleanupSession()?)",
+                        now - borrowedEntry.timestamp, borrowedEntry.origin);
+            }
+        }
+    }
+
+    private static final class Borrowed {
+
+        private final long timestamp;
+        private final Exception origin;
+
+        private Borrowed(final long timestamp, final Exception origin) {
+            this.timestamp = timestamp;
+            this.origin = origin;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.onehippo.cms7.essentials.dashboard.ctx.PluginContext;
+import org.onehippo.cms7.essentials.dashboard.model.EssentialsDependency;
+import org.onehippo.cms7.essentials.dashboard.model.Repository;
+import org.onehippo.cms7.essentials.dashboard.model.TargetPom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batches dependency and repository changes of pom files: each pom is read once, all changes are applied to the
+ * in-memory model and each modified pom is written once, on {@link #commit()}.
+ * <p/>
+ * Sessions are not thread safe.
+ * <pre>
+ * final PomEditSession poms = new PomEditSession(context);
+ * poms.addRepository(repository);
+ * poms.addDependency(dependency);
+ * poms.commit();
+ * </pre>
+ *
+ * @version "$Id$"
+ */
+public class PomEditSession {
+
+    private static Logger log = LoggerFactory.getLogger(PomEditSession.class);
+
+    private final PluginContext context;
+    private final Map<TargetPom, Model> models = new EnumMap<>(TargetPom.class);
+    private final Set<TargetPom> modified = EnumSet.noneOf(TargetPom.class);
+
+    public PomEditSession(final PluginContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns (editable) model of given pom. Call {@link #markModified(TargetPom)} after changing it.
+     *
+     * @param targetPom target pom
+     * @return pom model or null if pom couldn't be read
+     */
+    public Model getModel(final TargetPom targetPom) {
+        if (targetPom == null || targetPom == TargetPom.INVALID) {
+            return null;
+        }
+        Model model = models.get(targetPom);
+        if (model == null && !models.containsKey(targetPom)) {
+            model = ProjectUtils.getPomModel(context, targetPom);
+            models.put(targetPom, model);
+        }
+        return model;
+    }
+
+    public void markModified(final TargetPom targetPom) {
+        modified.add(targetPom);
+    }
+
+    public boolean isModified() {
+        return !modified.isEmpty();
+    }
+
+    /**
+     * @see DependencyUtils#hasDependency(PluginContext, EssentialsDependency)
+     */
+    public boolean hasDependency(final EssentialsDependency dependency) {
+        final Model model = getModel(dependency.getDependencyTargetPom());
+        return model != null && DependencyUtils.hasDependency(model, dependency);
+    }
+
+    /**
+     * @see DependencyUtils#hasRepository(PluginContext, Repository)
+     */
+    public boolean hasRepository(final Repository repository) {
+        final Model model = getModel(repository.getDependencyTargetPom());
+        return model != null && DependencyUtils.hasRepository(model, repository);
+    }
+
+    /**
+     * Adds dependency if it does not exist yet.
+     *
+     * @param dependency dependency to add
+     * @return true if dependency is added or already exists, false if dependency is invalid or pom couldn't be read
+     */
+    public boolean addDependency(final EssentialsDependency dependency) {
+        final TargetPom targetPom = dependency.getDependencyTargetPom();
+        if (targetPom == TargetPom.INVALID) {
+            return false;
+        }
+        final Model model = getModel(targetPom);
+        if (model == null) {
+            log.warn("Pom model was null for targetPom: {}", targetPom);
+            return false;
+        }
+        if (!DependencyUtils.hasDependency(model, dependency)) {
+            model.addDependency(dependency.createMavenDependency());
+            markModified(targetPom);
+        }
+        return true;
+    }
+
+    /**
+     * Removes dependency (if exists).
+     *
+     * @param dependency dependency to remove
+     * @return true if removed or did not exist, false if dependency is invalid or pom couldn't be read
+     */
+    public boolean removeDependency(final EssentialsDependency dependency) {
+        final TargetPom targetPom = dependency.getDependencyTargetPom();
+        if (targetPom == TargetPom.INVALID) {
+            return false;
+        }
+        final Model model = getModel(targetPom);
+        if (model == null) {
+            log.warn("Pom model was null for type: {}", targetPom);
+            return false;
+        }
+        if (!DependencyUtils.hasDependency(model, dependency)) {
+            return true;
+        }
+        final List<Dependency> dependencies = model.getDependencies();
+        final Iterator<Dependency> iterator = dependencies.iterator();
+        while (iterator.hasNext()) {
+            final Dependency next = iterator.next();
+            if (DependencyUtils.isSameDependency(dependency, next)) {
+                iterator.remove();
+                markModified(targetPom);
+                log.info("Removed dependency {}", dependency);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds maven repository if it does not exist yet.
+     *
+     * @param repository repository to add
+     * @return true if repository is added or already exists, false if repository is invalid or pom couldn't be read
+     */
+    public boolean addRepository(final Repository repository) {
+        final TargetPom targetPom = repository.getDependencyTargetPom();
+        if (targetPom == TargetPom.INVALID) {
+            return false;
+        }
+        final Model model = getModel(targetPom);
+        if (model == null) {
+            log.warn("Pom model was null for type: {}", targetPom);
+            return false;
+        }
+        if (!DependencyUtils.hasRepository(model, repository)) {
+            model.addRepository(repository.createMavenRepository());
+            markModified(targetPom);
+            log.debug("Added new maven repository {}", repository);
+        }
+        return true;
+    }
+
+    /**
+     * Writes all modified poms.
+     *
+     * @return true if all modified poms were written successfully
+     */
+    public boolean commit() {
+        boolean success = true;
+        final Iterator<TargetPom> iterator = modified.iterator();
+        while (iterator.hasNext()) {
+            final TargetPom targetPom = iterator.next();
+            final String pomPath = ProjectUtils.getPomPath(context, targetPom);
+            if (pomPath == null || !DependencyUtils.writePom(pomPath, models.get(targetPom))) {
+                success = false;
+                continue;
+            }
+            iterator.remove();
+        }
+        return success;
+    }
+}
@@ -27,10 +27,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
 import org.apache.maven.model.Model;
@@ -54,6 +54,7 @@ public final class ProjectUtils {
     public static final String ENT_GROUP_ID = "com.onehippo.cms7";
     public static final String ENT_ARTIFACT_ID = "hippo-cms7-enterprise-release";
     private static Logger log = LoggerFactory.getLogger(ProjectUtils.class);
+    private static final ConcurrentMap<String, CachedPomModel> POM_MODELS = new ConcurrentHashMap<>();
 
 
     private ProjectUtils() {
@@ -196,10 +197,7 @@ public final class ProjectUtils {
      */
     public static WebXml readWebXmlFile(final String path) {
         try {
-            final JAXBContext context = JAXBContext.newInstance(WebXml.class);
-            final Marshaller m = context.createMarshaller();
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(WebXml.class);
             return (WebXml) unmarshaller.unmarshal(new File(path));
         } catch (JAXBException e) {
             log.error("Error reading web.xml:" + path, e);
@@ -297,11 +295,27 @@ public final class ProjectUtils {
         return null;
     }
 
+    /**
+     * Returns (a copy of) the pom model for given path. Parsed models are cached, as long as the pom file isn't
+     * modified (checked by file modification time and size).
+     *
+     * @param path pom file path
+     * @return copy of the pom model, which can be modified by caller, null if pom couldn't be parsed
+     */
     private static Model getPomModel(String path) {
-
+        final File file = new File(path);
+        final CachedPomModel cached = POM_MODELS.get(path);
+        if (cached != null && cached.isValid(file)) {
+            return cached.model.clone();
+        }
+        // file state is read before parsing, so concurrent modifications invalidate the cached model:
+        final long lastModified = file.lastModified();
+        final long length = file.length();
         try (Reader fileReader = new FileReader(path)) {
             final MavenXpp3Reader reader = new MavenXpp3Reader();
-            return reader.read(fileReader);
+            final Model model = reader.read(fileReader);
+            POM_MODELS.put(path, new CachedPomModel(lastModified, length, model.clone()));
+            return model;
         } catch (XmlPullParserException | IOException e) {
             log.error("Error parsing pom", e);
         }
@@ -309,6 +323,34 @@ public final class ProjectUtils {
 
     }
 
+    /**
+     * Updates cached pom model after the pom file was written
+     *
+     * @param path  pom file path
+     * @param model model that was written
+     */
+    static void cachePomModel(final String path, final Model model) {
+        final File file = new File(path);
+        POM_MODELS.put(path, new CachedPomModel(file.lastModified(), file.length(), model.clone()));
+    }
+
+    private static final class CachedPomModel {
+
+        private final long lastModified;
+        private final long length;
+        private final Model model;
+
+        private CachedPomModel(final long lastModified, final long length, final Model model) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.model = model;
+        }
+
+        private boolean isValid(final File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
     private static String getWebXmlForDir(final File folder) {
 
         if (folder != null) {
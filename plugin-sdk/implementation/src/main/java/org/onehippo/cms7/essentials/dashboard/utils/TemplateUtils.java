@@ -42,8 +42,13 @@ import org.slf4j.LoggerFactory;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
 
 /**
@@ -52,6 +57,14 @@ import com.google.common.collect.ImmutableSet;
 public final class TemplateUtils {
 
     private static Logger log = LoggerFactory.getLogger(TemplateUtils.class);
+    private static final int MAX_CACHED_TEMPLATES = 500;
+    /**
+     * Mustache factory is thread safe, so single instance is shared
+     */
+    private static final MustacheFactory MUSTACHE_FACTORY = new DefaultMustacheFactory();
+    private static final Cache<HashCode, Mustache> TEMPLATE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_TEMPLATES)
+            .build();
 
     private TemplateUtils() {
     }
@@ -129,38 +142,21 @@ public final class TemplateUtils {
     }
 
     public static String replaceStringPlaceholders(final String content, final Map<String, String> data) {
-            if (Strings.isNullOrEmpty(content)) {
-                return content;
-            }
-
-            try {
-                final Writer writer = new StringWriter();
-                final MustacheFactory mf = new DefaultMustacheFactory();
-
-                final StringReader reader = new StringReader(content);
-                final Mustache mustache = mf.compile(reader, content);
-
-                mustache.execute(writer, data);
-                writer.flush();
-
-                return writer.toString();
-            } catch (IOException e) {
-                log.error("Error flushing template", e);
-            }
-            return content;
-
+        return executeTemplate(content, data);
     }
+
     public static String replaceTemplateData(final String content, final Map<String, Object> data) {
+        return executeTemplate(content, data);
+    }
+
+    private static String executeTemplate(final String content, final Object data) {
         if (Strings.isNullOrEmpty(content)) {
             return content;
         }
 
         try {
             final Writer writer = new StringWriter();
-            final MustacheFactory mf = new DefaultMustacheFactory();
-
-            final StringReader reader = new StringReader(content);
-            final Mustache mustache = mf.compile(reader, content);
+            final Mustache mustache = compileTemplate(content);
 
             mustache.execute(writer, data);
             writer.flush();
@@ -171,6 +167,23 @@ public final class TemplateUtils {
         return content;
     }
 
+    /**
+     * Returns compiled template for given template content. Compiled templates are cached (least recently used
+     * templates are evicted), keyed by hash of their content.
+     *
+     * @param content template content
+     * @return compiled template
+     */
+    static Mustache compileTemplate(final String content) {
+        final HashCode key = Hashing.murmur3_128().hashString(content, Charsets.UTF_8);
+        Mustache mustache = TEMPLATE_CACHE.getIfPresent(key);
+        if (mustache == null) {
+            mustache = MUSTACHE_FACTORY.compile(new StringReader(content), content);
+            TEMPLATE_CACHE.put(key, mustache);
+        }
+        return mustache;
+    }
+
     public static String injectTemplate(final String templateName, final Map<String, Object> data, final Class<?> clazz) {
         final InputStream stream = clazz.getClassLoader().getResourceAsStream(templateName);
         if (stream == null) {
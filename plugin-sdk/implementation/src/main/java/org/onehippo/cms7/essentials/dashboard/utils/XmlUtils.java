@@ -24,7 +24,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
@@ -68,10 +67,8 @@ public final class XmlUtils {
 
     public static String xmlNodeToString(final XmlNode value) {
         try {
-            final JAXBContext context = JAXBContext.newInstance(XmlNode.class);
-            final Marshaller m = context.createMarshaller();
+            final Marshaller m = JaxbContextRegistry.getMarshaller(XmlNode.class);
             //m.setProperty("com.sun.xml.bind.namespacePrefixMapper", new SvNodeNamespaceMapper());
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
             final StringWriter writer = new StringWriter();
             m.marshal(value, writer);
             return writer.toString();
@@ -86,8 +83,7 @@ public final class XmlUtils {
     public static XmlNode parseXml(final InputStream content) {
 
         try {
-            final JAXBContext context = JAXBContext.newInstance(XmlNode.class);
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(XmlNode.class);
             return (XmlNode) unmarshaller.unmarshal(content);
         } catch (JAXBException e) {
             if (log.isDebugEnabled()) {
@@ -102,8 +98,7 @@ public final class XmlUtils {
     public static XmlNode parseXml(final Path path) {
 
         try {
-            final JAXBContext context = JAXBContext.newInstance(XmlNode.class);
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(XmlNode.class);
             return (XmlNode) unmarshaller.unmarshal(path.toFile());
         } catch (JAXBException e) {
             if (log.isDebugEnabled()) {
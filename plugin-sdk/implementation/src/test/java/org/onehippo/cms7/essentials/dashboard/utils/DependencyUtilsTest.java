@@ -19,6 +19,7 @@ package org.onehippo.cms7.essentials.dashboard.utils;
 import java.net.URL;
 
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.junit.Test;
 import org.onehippo.cms7.essentials.BaseResourceTest;
 import org.onehippo.cms7.essentials.dashboard.ctx.PluginContext;
@@ -98,6 +99,41 @@ public class DependencyUtilsTest extends BaseResourceTest {
 
     }
 
+    @Test
+    public void testPomEditSession() throws Exception {
+        final PluginContext context = getContext();
+        final EssentialsDependency dependency = new DependencyRestful();
+        dependency.setTargetPom("cms");
+        dependency.setArtifactId("hippo-plugins-session");
+        dependency.setVersion("1.01.00-SNAPSHOT");
+        dependency.setGroupId("org.onehippo.cms7.essentials");
+        final Repository repository = new RepositoryRestful();
+        repository.setTargetPom(TargetPom.PROJECT.getName());
+        repository.setUrl(NEW_REPO + "session/");
+        repository.setId("session-id");
+
+        final PomEditSession poms = new PomEditSession(context);
+        assertTrue(poms.addDependency(dependency));
+        assertTrue(poms.addRepository(repository));
+        assertTrue(poms.hasDependency(dependency));
+        assertTrue(poms.isModified());
+        // nothing written yet:
+        assertFalse(DependencyUtils.hasDependency(context, dependency));
+        assertFalse(DependencyUtils.hasRepository(context, repository));
+        assertTrue(poms.commit());
+        assertFalse(poms.isModified());
+        assertTrue(DependencyUtils.hasDependency(context, dependency));
+        assertTrue(DependencyUtils.hasRepository(context, repository));
+
+        // cached models are copies:
+        final Model model = ProjectUtils.getPomModel(context, TargetPom.CMS);
+        model.getDependencies().clear();
+        assertTrue(DependencyUtils.hasDependency(context, dependency));
+
+        assertTrue(DependencyUtils.removeDependency(context, dependency));
+        assertFalse(DependencyUtils.hasDependency(context, dependency));
+    }
+
     @Test
     public void testDependencies() throws Exception {
         final URL resource = getClass().getResource("/project");
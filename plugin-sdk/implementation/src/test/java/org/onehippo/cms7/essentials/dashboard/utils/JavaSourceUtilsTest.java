@@ -32,11 +32,13 @@ import org.junit.Test;
 import org.onehippo.cms7.essentials.BaseResourceTest;
 import org.onehippo.cms7.essentials.dashboard.annotations.HippoEssentialsGenerated;
 import org.onehippo.cms7.essentials.dashboard.utils.code.ComponentInformation;
+import org.onehippo.cms7.essentials.dashboard.utils.code.EssentialsGeneratedMethod;
 import org.onehippo.cms7.essentials.dashboard.utils.code.ExistingMethodsVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -165,6 +167,45 @@ public class JavaSourceUtilsTest extends BaseResourceTest {
 
     }
 
+    @Test
+    public void testEditSession() throws Exception {
+        JavaSourceUtils.createHippoBean(path, "com.foo.bar", "foo:namespace", "MyHippoBean");
+        final String original = GlobalUtils.readTextFile(path).toString();
+        final JavaSourceEditSession session = new JavaSourceEditSession(path);
+        assertFalse(session.isModified());
+        session.addExtendsClass("HippoDocument");
+        session.addImport(EssentialConst.HIPPO_DOCUMENT_IMPORT);
+        session.addBeanMethodString("getTitle", "foo:title", false);
+        session.addBeanMethodCalendar("getDate", "foo:date", false);
+        session.addBeanMethodHippoHtml("getBody", "foo:body", true);
+        session.addBeanMethodHippoMirror("getLink", "foo:link", false);
+        session.addClassJavaDoc("TODO test");
+        assertTrue(session.isModified());
+        // nothing written until commit:
+        assertEquals(original, GlobalUtils.readTextFile(path).toString());
+        assertTrue(session.commit());
+        assertFalse(session.isModified());
+
+        final ExistingMethodsVisitor collection = JavaSourceUtils.getMethodCollection(path);
+        assertEquals(4, collection.getGeneratedMethodNames().size());
+        assertEquals("HippoDocument", JavaSourceUtils.getExtendsClass(path));
+        final List<String> statements = JavaSourceUtils.getImportStatements(path);
+        assertTrue(statements.contains(EssentialConst.HIPPO_DOCUMENT_IMPORT));
+        assertTrue(statements.contains("java.util.Calendar"));
+        assertTrue(statements.contains("java.util.List"));
+        assertTrue(statements.contains("org.hippoecm.hst.content.beans.standard.HippoHtml"));
+        assertTrue(statements.contains("org.hippoecm.hst.content.beans.standard.HippoBean"));
+        assertEquals(1, StringUtils.countMatches(GlobalUtils.readTextFile(path).toString(), "TODO test"));
+
+        // delete within session:
+        final JavaSourceEditSession deleteSession = new JavaSourceEditSession(path);
+        final EssentialsGeneratedMethod method = JavaSourceUtils.extractMethod("getTitle", JavaSourceUtils.getMethodCollection(deleteSession.getUnit()).getGeneratedMethods());
+        assertNotNull(method);
+        assertTrue(deleteSession.deleteMethod(method));
+        assertTrue(deleteSession.commit());
+        assertEquals(3, JavaSourceUtils.getMethodCollection(path).getGeneratedMethodNames().size());
+    }
+
     @Test
     public void testGetName() throws Exception {
 
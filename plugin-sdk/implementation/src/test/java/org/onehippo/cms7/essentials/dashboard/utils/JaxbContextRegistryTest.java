@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import java.io.InputStream;
+import java.io.StringReader;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.onehippo.cms7.essentials.dashboard.instruction.PluginInstructions;
+import org.onehippo.cms7.essentials.dashboard.instructions.Instructions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @version "$Id$"
+ */
+public class JaxbContextRegistryTest {
+
+    private static final int ITERATIONS = 50;
+    private static Logger log = LoggerFactory.getLogger(JaxbContextRegistryTest.class);
+
+    @Test
+    public void testSharedContext() throws Exception {
+        final JAXBContext context = JaxbContextRegistry.getContext(PluginInstructions.class);
+        assertSame(context, JaxbContextRegistry.getContext(PluginInstructions.class));
+    }
+
+    @Test
+    public void testUnmarshallerPerCall() throws Exception {
+        assertNotSame(JaxbContextRegistry.getUnmarshaller(PluginInstructions.class), JaxbContextRegistry.getUnmarshaller(PluginInstructions.class));
+        assertNotSame(JaxbContextRegistry.getMarshaller(PluginInstructions.class), JaxbContextRegistry.getMarshaller(PluginInstructions.class));
+        final String content = readInstructions();
+        assertEquals(3, parseRegistry(content).totalInstructionSets());
+    }
+
+    /**
+     * Compares parsing of plugin instructions with a new JAXB context per parse (old behavior) to the registry.
+     * Timings are logged only, they depend too much on the build machine to assert on.
+     */
+    @Ignore("Benchmark, creates a JAXB context per iteration: run manually")
+    @Test
+    public void testParseInstructionsBenchmark() throws Exception {
+        final String content = readInstructions();
+        // warm up class loading and JIT for both paths:
+        parseNewContext(content);
+        parseRegistry(content);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(3, parseNewContext(content).totalInstructionSets());
+        }
+        final long newContextNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(3, parseRegistry(content).totalInstructionSets());
+        }
+        final long registryNanos = System.nanoTime() - start;
+
+        log.info("Parsing instructions {} times: new JAXBContext {} ms, registry {} ms", ITERATIONS,
+                newContextNanos / 1000000, registryNanos / 1000000);
+    }
+
+    private static Instructions parseNewContext(final String content) throws Exception {
+        final Unmarshaller unmarshaller = JAXBContext.newInstance(PluginInstructions.class).createUnmarshaller();
+        return (Instructions) unmarshaller.unmarshal(new StringReader(content));
+    }
+
+    private static Instructions parseRegistry(final String content) throws Exception {
+        final Unmarshaller unmarshaller = JaxbContextRegistry.getUnmarshaller(PluginInstructions.class);
+        return (Instructions) unmarshaller.unmarshal(new StringReader(content));
+    }
+
+    private String readInstructions() {
+        final InputStream stream = getClass().getResourceAsStream("/parser_instructions.xml");
+        return GlobalUtils.readStreamAsText(stream);
+    }
+}
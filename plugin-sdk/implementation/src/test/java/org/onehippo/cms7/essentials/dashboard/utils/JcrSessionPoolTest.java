@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 Hippo B.V. (http://www.onehippo.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.cms7.essentials.dashboard.utils;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.junit.Test;
+import org.onehippo.cms7.essentials.BaseRepositoryTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @version "$Id$"
+ */
+public class JcrSessionPoolTest extends BaseRepositoryTest {
+
+    @Test
+    public void testBorrowAndRelease() throws Exception {
+        final JcrSessionPool pool = createPool(2, 100, 60000);
+        final Session session = pool.borrow();
+        assertNotNull(session);
+        assertTrue(pool.isBorrowed(session));
+        assertEquals(1, pool.getActiveCount());
+        pool.release(session);
+        assertFalse(pool.isBorrowed(session));
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+        // same session is reused:
+        final Session reused = pool.borrow();
+        assertSame(session, reused);
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(2, pool.getBorrowedCount());
+        pool.release(reused);
+        assertEquals(2, pool.getReturnedCount());
+        pool.clear();
+    }
+
+    @Test
+    public void testRefreshOnRelease() throws Exception {
+        final JcrSessionPool pool = createPool(1, 100, 60000);
+        final Session session = pool.borrow();
+        session.getRootNode().addNode("unsaved", "nt:unstructured");
+        assertTrue(session.hasPendingChanges());
+        pool.release(session);
+        final Session reused = pool.borrow();
+        assertSame(session, reused);
+        assertFalse(reused.hasPendingChanges());
+        assertFalse(reused.nodeExists("/unsaved"));
+        pool.release(reused);
+        pool.clear();
+    }
+
+    @Test
+    public void testExhaustedPool() throws Exception {
+        final JcrSessionPool pool = createPool(1, 10, 60000);
+        final Session pooled = pool.borrow();
+        final Session unpooled = pool.borrow();
+        assertNotNull(unpooled);
+        assertNotSame(pooled, unpooled);
+        assertFalse(pool.isBorrowed(unpooled));
+        assertEquals(1, pool.getUnpooledCount());
+        pool.release(unpooled);
+        assertFalse("unpooled session should be logged out", unpooled.isLive());
+        pool.release(pooled);
+        assertTrue(pooled.isLive());
+        pool.clear();
+        assertFalse(pooled.isLive());
+    }
+
+    @Test
+    public void testDiscardLoggedOutSession() throws Exception {
+        final JcrSessionPool pool = createPool(2, 100, 60000);
+        final Session session = pool.borrow();
+        session.logout();
+        pool.release(session);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getDiscardedCount());
+        final Session next = pool.borrow();
+        assertTrue(next.isLive());
+        pool.release(next);
+        pool.clear();
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        final JcrSessionPool pool = createPool(2, 100, 0);
+        final Session session = pool.borrow();
+        Thread.sleep(5);
+        final Session other = pool.borrow();
+        assertEquals(1, pool.getLeakedCount());
+        // slot of leaked session is reclaimed:
+        assertFalse(pool.isBorrowed(session));
+        assertEquals(1, pool.getActiveCount());
+        pool.release(session);
+        assertFalse("leaked session should be logged out", session.isLive());
+        pool.release(other);
+        assertEquals(0, pool.getActiveCount());
+        pool.clear();
+    }
+
+    @Test
+    public void testIgnoreUnknownAndDuplicateRelease() throws Exception {
+        final JcrSessionPool pool = createPool(2, 100, 60000);
+        final Session unknown = repository.getSession();
+        pool.release(unknown);
+        assertTrue("unknown session should be left alone", unknown.isLive());
+        assertEquals(0, pool.getIdleCount());
+        unknown.logout();
+
+        final Session session = pool.borrow();
+        pool.release(session);
+        pool.release(session);
+        assertTrue(session.isLive());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getReturnedCount());
+        pool.clear();
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final JcrSessionPool pool = createPool(2, 100, 60000);
+        final Session idle = pool.borrow();
+        final Session active = pool.borrow();
+        pool.release(idle);
+        pool.close();
+        assertFalse(idle.isLive());
+        assertTrue(active.isLive());
+        assertNull(pool.borrow());
+        pool.release(active);
+        assertFalse("sessions returned after close should be logged out", active.isLive());
+    }
+
+    private JcrSessionPool createPool(final int maxActive, final long maxWait, final long leakThreshold) {
+        return new JcrSessionPool(new JcrSessionPool.SessionFactory() {
+            @Override
+            public Session create() throws RepositoryException {
+                return repository.getSession();
+            }
+        }, maxActive, maxWait, leakThreshold);
+    }
+}
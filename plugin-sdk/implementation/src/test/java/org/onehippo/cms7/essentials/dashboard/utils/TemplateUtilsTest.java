@@ -33,6 +33,8 @@ import org.slf4j.LoggerFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -126,6 +128,18 @@ public class TemplateUtilsTest extends BaseTest {
 
     }
 
+    @Test
+    public void testCompiledTemplateCache() throws Exception {
+        final String template = "cached {{namespace}}";
+        assertSame(TemplateUtils.compileTemplate(template), TemplateUtils.compileTemplate(template));
+        assertNotSame(TemplateUtils.compileTemplate(template), TemplateUtils.compileTemplate(template + ' '));
+        final Map<String, Object> data = new HashMap<>();
+        data.put("namespace", "first");
+        assertEquals("cached first", TemplateUtils.replaceTemplateData(template, data));
+        data.put("namespace", "second");
+        assertEquals("cached second", TemplateUtils.replaceTemplateData(template, data));
+    }
+
     private void populateExistingBeans() {
         final PluginContext context = getContext();
         context.setProjectNamespacePrefix(HIPPOPLUGINS_NAMESPACE);
@@ -20,9 +20,11 @@
   limitations under the License.
 -->
 <#-- @ftlvariable name="menu" type="org.hippoecm.hst.core.sitemenu.HstSiteMenu" -->
-<#if menu??>
+<#-- @ftlvariable name="cachedMenu" type="org.onehippo.cms7.essentials.components.menu.SelectedSiteMenu" -->
+<#if cachedMenu?? || menu??>
+<#assign menuView = cachedMenu!menu>
 <ul class="nav nav-pills">
-    <#list menu.siteMenuItems as item>
+    <#list menuView.siteMenuItems as item>
         <#if  item.selected || item.expanded>
             <li class="active"><a href="<@hst.link link=item.hstLink/>">${item.name}</a></li>
         <#else>
@@ -30,7 +32,9 @@
         </#if>
     </#list>
 </ul>
+<#if menu??>
 <@hst.cmseditmenu menu=menu/>
+</#if>
 <#-- @ftlvariable id="editMode" type="java.lang.Boolean"-->
 <#elseif editMode>
 <img src="<@hst.link path="/images/essentials/catalog-component-icons/menu.png" />"> Click to edit Menu
@@ -16,9 +16,11 @@
   --%>
 
 <%--@elvariable id="menu" type="org.hippoecm.hst.core.sitemenu.HstSiteMenu"--%>
-<c:if test="${not empty menu}">
+<%--@elvariable id="cachedMenu" type="org.onehippo.cms7.essentials.components.menu.SelectedSiteMenu"--%>
+<c:set var="menuView" value="${empty cachedMenu ? menu : cachedMenu}"/>
+<c:if test="${not empty menuView}">
   <ul class="nav nav-pills">
-    <c:forEach var="item" items="${menu.siteMenuItems}">
+    <c:forEach var="item" items="${menuView.siteMenuItems}">
       <c:choose>
         <c:when test="${item.selected or item.expanded}">
           <li class="active"><a href="<hst:link link="${item.hstLink}"/>">${item.name}</a></li>
@@ -29,9 +31,11 @@
       </c:choose>
     </c:forEach>
   </ul>
-  <hst:cmseditmenu menu="${menu}"/>
+  <c:if test="${not empty menu}">
+    <hst:cmseditmenu menu="${menu}"/>
+  </c:if>
 </c:if>
 <%--@elvariable id="editMode" type="java.lang.Boolean"--%>
-<c:if test="${editMode && empty menu}">
+<c:if test="${editMode && empty menuView}">
   <img src="<hst:link path='/images/essentials/catalog-component-icons/menu.png'/>"> Click to edit Menu
 </c:if>